@@ -0,0 +1,35 @@
+package src;
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Lance les benchmarks JMH avec des résultats JSON horodatés dans
+ * bench-results/ et le profileur GC (taux d'allocation par opération).
+ *
+ * Depuis la racine du dépôt (pour trouver ./assets/):
+ *   mvn -B package -DskipTests
+ *   java -jar benchmarks/target/benchmarks.jar [options JMH]
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder b = new OptionsBuilder().parent(cli);
+
+        if (!cli.getResultFormat().hasValue())
+            b.resultFormat(ResultFormatType.JSON);
+        if (!cli.getResult().hasValue()) {
+            new File("bench-results").mkdirs();
+            String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            b.result("bench-results/jmh-" + stamp + ".json");
+        }
+        if (cli.getProfilers().isEmpty())
+            b.addProfiler(GCProfiler.class);
+
+        new Runner(b.build()).run();
+    }
+}
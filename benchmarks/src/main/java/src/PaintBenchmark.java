@@ -0,0 +1,74 @@
+package src;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import org.openjdk.jmh.annotations.*;
+
+/* ---------- PaintBenchmark: paintComponent hors écran ---------- */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class PaintBenchmark {
+    @Param({"FACILE", "DIFFICILE"})
+    String level;
+
+    @Param({"900"})
+    int size;
+
+    GamePanel panel;
+    BufferedImage frame;
+    Rectangle dirty;
+
+    // la partie se prépare en tâche de fond (plateau, image): on attend qu'elle soit prête.
+    // loadGame, pas startNewGame: la sauvegarde du joueur n'est ni abandonnée ni remplacée
+    static GamePanel newGame(String level, int players, int size) throws Exception {
+        GamePanel panel = new GamePanel(null);
+        panel.setSize(size, size);
+        SwingUtilities.invokeAndWait(() -> panel.loadGame(new GameConfig(level, players, true)));
+        boolean[] ready = new boolean[1];
+        while (!ready[0]) {
+            Thread.sleep(10);
+            SwingUtilities.invokeAndWait(() -> {
+                ready[0] = panel.engine != null;
+                if (ready[0]) panel.autosave.stop();
+            });
+        }
+        return panel;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        panel = newGame(level, 3, size);
+
+        // pions dispersés sur le plateau, comme en cours de partie
+        SplittableRandom rng = new SplittableRandom(7);
+        for (int i=0; i<12 && !panel.engine.isOver(); i++)
+            panel.engine.roll(rng);
+        frame = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        dirty = panel.pawnRects()[0];
+    }
+
+    @Benchmark
+    public BufferedImage paintFrame() {
+        Graphics2D g = frame.createGraphics();
+        panel.paintComponent(g);
+        g.dispose();
+        return frame;
+    }
+
+    // repeinte d'un seul pion déplacé, comme après un coup
+    @Benchmark
+    public BufferedImage paintDirtyRegion() {
+        Graphics2D g = frame.createGraphics();
+        g.setClip(dirty);
+        panel.paintComponent(g);
+        g.dispose();
+        return frame;
+    }
+}
@@ -0,0 +1,65 @@
+package src;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/* ---------- ScoreBenchmark: aller-retour disque du ScoreManager ---------- */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoreBenchmark {
+    File file;
+    ScoreManager manager;
+    int next;
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("scores", ".dat");
+        file.delete();
+        manager = new ScoreManager(file.getPath());
+        for (int i=0; i<10; i++) manager.addScore("B" + i, 100 * i);
+        manager.flush();
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.flush();
+        file.delete();
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        manager.flush();
+    }
+
+    @Benchmark
+    public void load() {
+        manager.loadScores();
+    }
+
+    // écriture complète sur disque: planification, fichier temporaire, fsync et renommage
+    @Benchmark
+    public void save() {
+        manager.saveScores();
+        manager.flush();
+    }
+
+    // coût vu par l'EDT: insertion en mémoire, l'écriture part en tâche de fond
+    @Benchmark
+    public boolean insert() {
+        next = (next + 37) % 1000;
+        manager.addScore("INS", next);
+        return manager.isTopScore(next);
+    }
+
+    @Benchmark
+    public void insertDurable() {
+        next = (next + 37) % 1000;
+        manager.addScore("INS", next);
+        manager.flush();
+    }
+}
@@ -0,0 +1,43 @@
+package src;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/* ---------- TurnBenchmark: débit d'un coup et placement des pions ---------- */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TurnBenchmark {
+    @Param({"FACILE", "DIFFICILE"})
+    String level;
+
+    @Param({"2"})
+    int players;
+
+    GameEngine engine;
+    SplittableRandom rng;
+    GamePanel panel;
+    int pos;
+
+    @Setup
+    public void setup() throws Exception {
+        engine = new GameEngine(new GameConfig(level, players, true));
+        rng = new SplittableRandom(42);
+        panel = PaintBenchmark.newGame(level, players, 900);
+    }
+
+    @Benchmark
+    public int playTurn() {
+        if (engine.isOver()) engine.reset();
+        return engine.roll(rng);
+    }
+
+    @Benchmark
+    public Object squarePoint() {
+        pos = pos == panel.finalSquare ? 0 : pos + 1;
+        return panel.squarePoint(pos);
+    }
+}
@@ -0,0 +1,71 @@
+package src;
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * GameEngine.step ne doit rien allouer: après chauffe, le compteur
+ * d'octets alloués par le fil ne bouge pas pendant des milliers de coups.
+ * Ignoré si la JVM ne mesure pas les allocations par fil.
+ */
+class GameEngineAllocationTest {
+    static final int WARMUP = 200_000;
+    static final int STEPS = 1_000_000;
+
+    // plateau de 63 cases avec des sauts en avant et en arrière, sans fichier boards/
+    static Board board() {
+        int[] jumps = new int[64];
+        for (int s=0; s<jumps.length; s++) jumps[s] = s;
+        jumps[6] = 12;
+        jumps[19] = 9;
+        jumps[31] = 42;
+        jumps[52] = 30;
+        jumps[58] = 0;
+        return new Board("TEST", 63, jumps, null, 10, null, null);
+    }
+
+    static GameEngine engine(int pawns) {
+        List<Player> players = new ArrayList<>();
+        for (int i=0; i<pawns; i++) players.add(new Player("J" + (i+1), Color.RED, true));
+        return new GameEngine(board(), players);
+    }
+
+    static com.sun.management.ThreadMXBean threads() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        assumeTrue(mx instanceof com.sun.management.ThreadMXBean, "compteur d'allocations absent");
+        com.sun.management.ThreadMXBean t = (com.sun.management.ThreadMXBean) mx;
+        assumeTrue(t.isThreadAllocatedMemorySupported(), "compteur d'allocations non supporté");
+        t.setThreadAllocatedMemoryEnabled(true);
+        return t;
+    }
+
+    static void play(GameEngine e, DiceRng rng, int steps) {
+        for (int i=0; i<steps; i++) {
+            if (e.isOver()) e.reset();
+            e.step(rng.rollDie());
+        }
+    }
+
+    static long allocatedBy(GameEngine e) {
+        com.sun.management.ThreadMXBean t = threads();
+        DiceRng rng = new DiceRng(42);
+        play(e, rng, WARMUP);
+        long before = t.getCurrentThreadAllocatedBytes();
+        play(e, rng, STEPS);
+        return t.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    @Test
+    void classicTurnAllocatesNothing() {
+        assertEquals(0, allocatedBy(engine(4)), "octets alloués pendant " + STEPS + " coups");
+    }
+
+    @Test
+    void crowdTurnAllocatesNothing() {
+        assertEquals(0, allocatedBy(engine(200)), "octets alloués pendant " + STEPS + " coups");
+    }
+}
@@ -0,0 +1,214 @@
+package src;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.swing.SwingUtilities;
+
+/**
+ * Cache des images du jeu (plateaux, dés, pions).
+ *
+ * Chaque fichier est décodé une seule fois, converti en image compatible
+ * avec l'écran, puis chaque taille d'affichage demandée est calculée une
+ * fois et gardée sous la clé "chemin@LxH". Le cache est un LRU borné en
+ * octets (propriété oie.assets.mb, 64 Mo par défaut): les images les moins
+ * récemment utilisées sont évincées et seront redécodées si besoin.
+ *
+ * Le décodage se fait toujours sur le fil "assets". Depuis l'EDT, image()
+ * et scaled() ne bloquent pas: en cas d'absence du cache elles lancent le
+ * décodage et rendent null (imageAsync/scaledAsync pour être prévenu).
+ */
+class AssetCache {
+    static final int DICE_SIZE = 60;
+    static final int PAWN_SIZE = 24;
+    static final String[] PAWNS = {"assets/pawn_red.png", "assets/pawn_blue.png",
+                                   "assets/pawn_green.png", "assets/pawn_yellow.png"};
+
+    private static AssetCache shared;
+
+    static synchronized AssetCache shared() {
+        if (shared == null)
+            shared = new AssetCache(Long.getLong("oie.assets.mb", 64) * 1024 * 1024);
+        return shared;
+    }
+
+    static String dicePath(int n) { return "assets/dice_" + n + ".png"; }
+
+    // sprite associé à une couleur de pion, null si aucun
+    static String pawnPath(Color c) {
+        Color[] colors = GameEngine.PAWN_COLORS;
+        for (int i=0; i<colors.length; i++)
+            if (colors[i].equals(c)) return PAWNS[i];
+        return null;
+    }
+
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    final long budgetBytes;
+    private long usedBytes;
+    private final LinkedHashMap<String,BufferedImage> lru = new LinkedHashMap<>(64, 0.75f, true);
+    private final ConcurrentHashMap<String,FutureTask<BufferedImage>> loading = new ConcurrentHashMap<>();
+    private volatile Thread loaderThread;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "assets");
+        t.setDaemon(true);
+        loaderThread = t;
+        return t;
+    });
+
+    AssetCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** Décode en tâche de fond les dés, les pions et l'image de chaque plateau de boards/. */
+    CompletableFuture<Void> preloadAsync() {
+        return DiskIo.read(() -> {
+            for (int n=1; n<=6; n++) scaled(dicePath(n), DICE_SIZE, DICE_SIZE);
+            for (String p : PAWNS) scaled(p, PAWN_SIZE, PAWN_SIZE);
+            for (String level : BoardLoader.levels()) {
+                Board b;
+                try {
+                    b = BoardLoader.load(level);
+                } catch(RuntimeException e) {
+                    continue;   // plateau invalide: l'erreur sera montrée à qui le choisit
+                }
+                if (b.image != null) image(b.image);
+            }
+            return null;
+        }, loader);
+    }
+
+    /** Image originale décodée, ou null si le fichier est absent ou illisible. */
+    BufferedImage image(String path) {
+        return load(path, () -> toCompatible(ImageIO.read(new File(path))));
+    }
+
+    /** Image à la taille d'affichage w x h, ou null si la source manque. */
+    BufferedImage scaled(String path, int w, int h) {
+        if (w <= 0 || h <= 0) return null;
+        return load(path + "@" + w + "x" + h, () -> {
+            BufferedImage src = image(path);
+            return src == null ? null : scale(src, w, h);
+        });
+    }
+
+    /** Comme image(), sans bloquer: déjà résolu si l'image est en cache, sinon décodée sur le fil "assets". */
+    CompletableFuture<BufferedImage> imageAsync(String path) {
+        return async(path, () -> image(path));
+    }
+
+    /** Comme scaled(), sans bloquer l'appelant. */
+    CompletableFuture<BufferedImage> scaledAsync(String path, int w, int h) {
+        return async(path + "@" + w + "x" + h, () -> scaled(path, w, h));
+    }
+
+    private CompletableFuture<BufferedImage> async(String key, Callable<BufferedImage> load) {
+        BufferedImage img;
+        synchronized (this) { img = lru.get(key); }
+        if (img != null) return CompletableFuture.completedFuture(img == MISSING ? null : img);
+        return DiskIo.read(load, loader);
+    }
+
+    synchronized long usedBytes() { return usedBytes; }
+
+    private BufferedImage load(String key, Callable<BufferedImage> decode) {
+        BufferedImage img;
+        synchronized (this) { img = lru.get(key); }
+        if (img != null) return img == MISSING ? null : img;
+
+        // une seule tâche de décodage par clé, même si l'EDT et le préchargement se croisent
+        FutureTask<BufferedImage> task = new FutureTask<>(() -> {
+            Metrics.ImageDecodeEvent ev = new Metrics.ImageDecodeEvent();
+            ev.begin();
+            BufferedImage b;
+            try { b = decode.call(); } catch (Exception ex) { b = null; }
+            if (ev.shouldCommit()) {
+                ev.key = key;
+                if (b != null) { ev.width = b.getWidth(); ev.height = b.getHeight(); }
+                ev.commit();
+            }
+            put(key, b == null ? MISSING : b);
+            return b;
+        });
+        FutureTask<BufferedImage> running = loading.putIfAbsent(key, task);
+        if (Thread.currentThread() == loaderThread) {
+            // sur le fil "assets": une tâche en file derrière nous tournerait trop tard,
+            // on la joue tout de suite (son passage ultérieur ne fera rien)
+            if (running == null) running = task;
+            running.run();
+            loading.remove(key, running);
+        } else if (running == null) {
+            running = task;
+            loader.execute(() -> {
+                task.run();
+                loading.remove(key, task);
+            });
+        }
+        if (SwingUtilities.isEventDispatchThread() && !running.isDone()) return null;
+        try {
+            return running.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException ex) {
+            return null;
+        }
+    }
+
+    private synchronized void put(String key, BufferedImage img) {
+        BufferedImage old = lru.put(key, img);
+        if (old != null) usedBytes -= weight(old);
+        usedBytes += weight(img);
+
+        Iterator<Map.Entry<String,BufferedImage>> it = lru.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<String,BufferedImage> e = it.next();
+            if (e.getKey().equals(key)) continue;
+            usedBytes -= weight(e.getValue());
+            it.remove();
+        }
+    }
+
+    private static long weight(BufferedImage img) {
+        return (long) img.getWidth() * img.getHeight() * 4;
+    }
+
+    static BufferedImage createCompatible(int w, int h, int transparency) {
+        if (GraphicsEnvironment.isHeadless())
+            return new BufferedImage(w, h, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(w, h, transparency);
+    }
+
+    static BufferedImage toCompatible(BufferedImage src) {
+        if (src == null) return null;
+        BufferedImage dst = createCompatible(src.getWidth(), src.getHeight(), src.getTransparency());
+        Graphics2D g = dst.createGraphics();
+        g.drawImage(src, 0, 0, null);
+        g.dispose();
+        return dst;
+    }
+
+    // réduction par moitiés successives puis bilinéaire: proche de SCALE_SMOOTH, bien plus rapide
+    static BufferedImage scale(BufferedImage src, int w, int h) {
+        BufferedImage cur = src;
+        int cw = src.getWidth(), ch = src.getHeight();
+        do {
+            if (cw > w) cw = Math.max(w, cw / 2);
+            else cw = w;
+            if (ch > h) ch = Math.max(h, ch / 2);
+            else ch = h;
+            BufferedImage next = createCompatible(cw, ch, src.getTransparency());
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(cur, 0, 0, cw, ch, null);
+            g.dispose();
+            cur = next;
+        } while (cw != w || ch != h);
+        return cur;
+    }
+}
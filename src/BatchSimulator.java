@@ -0,0 +1,171 @@
+package src;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Simulation Monte Carlo de parties complètes, sans UI.
+ *
+ * Les parties sont réparties en fork-join; chaque tâche reçoit son propre
+ * flux aléatoire par SplittableRandom.split(), donc une même graine donne
+ * les mêmes résultats quel que soit le nombre de coeurs.
+ *
+ * Pour lancer:
+ *   java src.BatchSimulator [--check-alloc [seuil]] [FACILE|DIFFICILE|TOUS] [joueurs] [ia] [parties] [graine]
+ *
+ * Le rapport donne aussi les octets alloués par coup pendant les parties:
+ * le coeur du moteur (GameEngine.step) n'alloue rien, on doit lire 0.
+ * Avec --check-alloc, le programme sort en erreur (code 1) si un niveau
+ * dépasse le seuil (ALLOC_LIMIT octets par coup par défaut), pour qu'une
+ * régression casse un script ou une CI au lieu de passer inaperçue.
+ */
+class BatchSimulator {
+    static final int MAX_TURNS = 100_000;   // garde-fou contre une partie sans fin
+    static final long LEAF_GAMES = 10_000;
+    static final double ALLOC_LIMIT = 0.1;  // octets par coup tolérés par --check-alloc (démarrage du JIT)
+
+    final GameConfig cfg;
+
+    BatchSimulator(GameConfig cfg) { this.cfg = cfg; }
+
+    SimStats run(long games, long seed, ForkJoinPool pool) {
+        return pool.invoke(new SimTask(0, games, new SplittableRandom(seed)));
+    }
+
+    SimStats playRange(long n, SplittableRandom rng) {
+        GameEngine engine = new GameEngine(cfg);
+        SimStats s = new SimStats(engine.players.size());
+        long a0 = allocated();
+        for (long g=0; g<n; g++) {
+            engine.reset();
+            while (!engine.isOver() && engine.turns < MAX_TURNS)
+                engine.roll(rng);
+            s.record(engine);
+        }
+        s.allocated += allocated() - a0;
+        return s;
+    }
+
+    // octets alloués par le fil courant (-1 si la JVM ne le mesure pas)
+    static long allocated() {
+        java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+        return mx instanceof com.sun.management.ThreadMXBean
+                ? ((com.sun.management.ThreadMXBean) mx).getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    class SimTask extends RecursiveTask<SimStats> {
+        private static final long serialVersionUID = 1L;
+
+        final long start, n;
+        final SplittableRandom rng;
+
+        SimTask(long start, long n, SplittableRandom rng) {
+            this.start = start;
+            this.n = n;
+            this.rng = rng;
+        }
+
+        @Override
+        protected SimStats compute() {
+            if (n <= LEAF_GAMES) return playRange(n, rng);
+            long half = n / 2;
+            SimTask left = new SimTask(start, half, rng.split());
+            SimTask right = new SimTask(start + half, n - half, rng);
+            left.fork();
+            SimStats s = right.compute();
+            s.merge(left.join());
+            return s;
+        }
+    }
+
+    public static void main(String[] args) {
+        double limit = -1;
+        if (args.length > 0 && args[0].equals("--check-alloc")) {
+            int skip = 1;
+            limit = ALLOC_LIMIT;
+            if (args.length > 1 && args[1].matches("[0-9.]+")) {
+                limit = Double.parseDouble(args[1]);
+                skip = 2;
+            }
+            args = Arrays.copyOfRange(args, skip, args.length);
+            if (allocated() < 0) {
+                System.err.println("Cette JVM ne mesure pas les allocations par fil");
+                System.exit(2);
+            }
+        }
+        String level = args.length > 0 ? args[0].toUpperCase() : "TOUS";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        boolean ai = args.length > 2 && Boolean.parseBoolean(args[2]);
+        long games = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        List<String> levels = level.equals("TOUS") ? List.of("FACILE", "DIFFICILE") : List.of(level);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("Coeurs: " + pool.getParallelism() + "  graine: " + seed);
+        List<String> over = new ArrayList<>();
+        for (String lvl : levels) {
+            BatchSimulator sim = new BatchSimulator(new GameConfig(lvl, n, ai));
+            long t0 = System.nanoTime();
+            SimStats s = sim.run(games, seed, pool);
+            double secs = (System.nanoTime() - t0) / 1e9;
+            System.out.println();
+            System.out.println("== " + lvl + " : " + n + " joueur(s)" + (ai ? " + AI" : ""));
+            System.out.print(s.report(secs));
+            if (limit >= 0 && s.bytesPerMove() > limit)
+                over.add(String.format("%s: %.3f octets par coup", lvl, s.bytesPerMove()));
+        }
+        if (!over.isEmpty()) {
+            System.err.println("Allocation au-dessus de " + limit + " octets par coup: " + over);
+            System.exit(1);
+        }
+    }
+}
+
+/* ---------- SimStats: agrégats d'un lot de parties ---------- */
+class SimStats {
+    long games;
+    long unfinished;
+    long moves;          // coups joués, parties interrompues comprises
+    long allocated;      // octets alloués pendant les parties
+    final long[] wins;
+    final Histogram turns = new Histogram(0, 1, 2000);
+    final Histogram winnerScore = new Histogram(-2000, 10, 3000);
+
+    SimStats(int seats) { wins = new long[seats]; }
+
+    void record(GameEngine e) {
+        games++;
+        moves += e.turns;
+        if (!e.isOver()) { unfinished++; return; }
+        wins[e.winner]++;
+        turns.add(e.turns);
+        winnerScore.add(e.score[e.winner]);
+    }
+
+    void merge(SimStats o) {
+        games += o.games;
+        unfinished += o.unfinished;
+        moves += o.moves;
+        allocated += o.allocated;
+        for (int i=0;i<wins.length;i++) wins[i] += o.wins[i];
+        turns.merge(o.turns);
+        winnerScore.merge(o.winnerScore);
+    }
+
+    double bytesPerMove() { return allocated / (double) Math.max(1, moves); }
+
+    String report(double secs) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Parties: %d en %.2f s (%.0f parties/s)%n", games, secs, games / secs));
+        if (unfinished > 0)
+            sb.append("Parties interrompues (> " + BatchSimulator.MAX_TURNS + " coups): " + unfinished + "\n");
+        sb.append("Coups par partie : ").append(turns.summary()).append('\n');
+        sb.append("Score du gagnant : ").append(winnerScore.summary()).append('\n');
+        sb.append(String.format("Allocation       : %.3f octets par coup%n", bytesPerMove()));
+        sb.append("Victoires par place:");
+        for (int i=0;i<wins.length;i++)
+            sb.append(String.format("  #%d %.2f%%", i+1, 100.0 * wins[i] / Math.max(1, games - unfinished)));
+        sb.append('\n');
+        return sb.toString();
+    }
+}
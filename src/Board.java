@@ -0,0 +1,64 @@
+package src;
+import java.awt.Point;
+
+/* ---------- Board: plateau compilé en tableaux (voir BoardLoader) ---------- */
+class Board {
+    final String level;
+    final int finalSquare;
+    final int[] jumps;     // jumps[s] = arrivée du saut depuis s, ou s si case normale
+    final String image;    // null si l'image n'existe pas
+    final int cols;        // > 0: cases en serpentin sur une grille de cols colonnes
+    final int[] xs, ys;    // sinon: coordonnées de chaque case, relatives au plateau
+
+    Board(String level, int finalSquare, int[] jumps, String image, int cols, int[] xs, int[] ys) {
+        this.level = level;
+        this.finalSquare = finalSquare;
+        this.jumps = jumps;
+        this.image = image;
+        this.cols = cols;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    static Board forLevel(String level) {
+        return BoardLoader.load(level);
+    }
+
+    boolean isSpecial(int square) { return jumps[square] != square; }
+
+    // au-delà de la case finale, le pion recule d'autant
+    int bounce(int from, int die) {
+        int t = from + die;
+        if (t > finalSquare) t = finalSquare - (t - finalSquare);
+        return t;
+    }
+
+    // destination d'un pion seul sur le plateau (aucune prise de place possible)
+    int destination(int from, int die) {
+        int t = bounce(from, die);
+        if (t > from) t = jumps[t];
+        return jumps[t];
+    }
+
+    /**
+     * Centre de la case pos dans le repère du plateau, de taille w x h (celle
+     * de son image): les coordonnées du fichier sont déjà dans ce repère,
+     * la grille y est répartie. GamePanel passe ensuite à l'écran.
+     */
+    Point point(int pos, int w, int h) {
+        if (cols == 0) return new Point(xs[pos], ys[pos]);
+        if (pos<=0) return new Point(20, h - 20);
+
+        int rows = (finalSquare + cols - 1) / cols;
+        int cellW = Math.max(20, w/cols);
+        int cellH = Math.max(20, h/rows);
+
+        int idx = pos-1;
+        int r = rows - 1 - (idx/cols);
+        int c = idx % cols;
+        if ((rows - r) % 2 == 0)
+            c = cols - 1 - c;
+
+        return new Point(c*cellW + cellW/2, r*cellH + cellH/2);
+    }
+}
@@ -0,0 +1,171 @@
+package src;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chargement des plateaux depuis ./boards/<niveau>.board.
+ *
+ * Un fichier est lu la première fois qu'un niveau est demandé, vérifié,
+ * puis gardé en cache sous forme compilée (tableaux d'int), partagée par
+ * toutes les parties. Format texte, une directive par ligne, # commente:
+ *
+ *   cases 47                    numéro de la case finale
+ *   image assets/pj1.jpg        image du plateau (facultative)
+ *   grille 10                   cases en serpentin sur 10 colonnes, ou:
+ *   coords 182,578 200,524 ...  coordonnées des cases 0, 1, 2... (plusieurs lignes possibles)
+ *   saut 4 7                    un pion arrivant en 4 va en 7
+ *
+ * Pour vérifier ou générer un plateau:
+ *   java src.BoardLoader fichier.board ...
+ *   java src.BoardLoader gen 20000 boards/geant.board
+ */
+class BoardLoader {
+    static final Path DIR = Paths.get("boards");
+
+    private static final ConcurrentHashMap<String,Board> cache = new ConcurrentHashMap<>();
+
+    /** Plateau du niveau (FACILE -> boards/facile.board), lu une seule fois. */
+    static Board load(String level) {
+        return cache.computeIfAbsent(level, l -> {
+            Path file = DIR.resolve(l.toLowerCase() + ".board");
+            try {
+                return parse(l, Files.newBufferedReader(file, StandardCharsets.UTF_8));
+            } catch(IOException e) {
+                throw new UncheckedIOException("plateau illisible: " + file, e);
+            }
+        });
+    }
+
+    /** Niveaux jouables: ceux livrés d'abord, puis les autres fichiers de boards/ par nom. */
+    static List<String> levels() {
+        List<String> found = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(DIR, "*.board")) {
+            for (Path f : dir) {
+                String name = f.getFileName().toString();
+                name = name.substring(0, name.length() - ".board".length());
+                // load() cherche le nom en minuscules
+                if (name.equals(name.toLowerCase()) && !name.isEmpty()) found.add(name.toUpperCase());
+            }
+        } catch(IOException e) {
+            return Arrays.asList(ScoreHistory.LEVELS);
+        }
+        List<String> levels = new ArrayList<>();
+        for (String l : ScoreHistory.LEVELS) if (found.remove(l)) levels.add(l);
+        Collections.sort(found);
+        levels.addAll(found);
+        return levels;
+    }
+
+    static Board parse(String level, BufferedReader in) throws IOException {
+        int finalSquare = -1, cols = 0, nCoords = 0, nJumps = 0;
+        String image = null;
+        int[] xs = new int[64], ys = new int[64];
+        int[] from = new int[16], to = new int[16];
+
+        int lineNo = 0;
+        try (in) {
+            for (String line; (line = in.readLine()) != null; ) {
+                lineNo++;
+                int hash = line.indexOf('#');
+                if (hash >= 0) line = line.substring(0, hash);
+                StringTokenizer tok = new StringTokenizer(line, " \t,");
+                if (!tok.hasMoreTokens()) continue;
+                String key = tok.nextToken();
+                try {
+                    switch (key) {
+                        case "cases":
+                            finalSquare = Integer.parseInt(tok.nextToken());
+                            break;
+                        case "image":
+                            image = tok.nextToken();
+                            break;
+                        case "grille":
+                            cols = Integer.parseInt(tok.nextToken());
+                            break;
+                        case "coords":
+                            while (tok.hasMoreTokens()) {
+                                if (nCoords == xs.length) {
+                                    xs = Arrays.copyOf(xs, nCoords * 2);
+                                    ys = Arrays.copyOf(ys, nCoords * 2);
+                                }
+                                xs[nCoords] = Integer.parseInt(tok.nextToken());
+                                ys[nCoords++] = Integer.parseInt(tok.nextToken());
+                            }
+                            break;
+                        case "saut":
+                            if (nJumps == from.length) {
+                                from = Arrays.copyOf(from, nJumps * 2);
+                                to = Arrays.copyOf(to, nJumps * 2);
+                            }
+                            from[nJumps] = Integer.parseInt(tok.nextToken());
+                            to[nJumps++] = Integer.parseInt(tok.nextToken());
+                            break;
+                        default:
+                            throw new IOException(level + ", ligne " + lineNo + ": directive inconnue " + key);
+                    }
+                } catch(NumberFormatException | NoSuchElementException e) {
+                    throw new IOException(level + ", ligne " + lineNo + ": valeur manquante ou invalide");
+                }
+            }
+        }
+
+        // vérifications: un plateau invalide est refusé au chargement, pas en pleine partie
+        if (finalSquare < 1) throw new IOException(level + ": nombre de cases manquant");
+        if ((cols > 0) == (nCoords > 0)) throw new IOException(level + ": il faut soit grille, soit coords");
+        if (nCoords > 0 && nCoords < finalSquare + 1)
+            throw new IOException(level + ": " + nCoords + " coordonnées pour " + (finalSquare + 1) + " cases");
+
+        int[] jumps = new int[finalSquare + 1];
+        for (int s=0; s<=finalSquare; s++) jumps[s] = s;
+        for (int i=0; i<nJumps; i++) {
+            int a = from[i], b = to[i];
+            if (a < 1 || a >= finalSquare || b < 0 || b > finalSquare || a == b)
+                throw new IOException(level + ": saut " + a + " -> " + b + " hors plateau");
+            if (jumps[a] != a) throw new IOException(level + ": deux sauts depuis la case " + a);
+            jumps[a] = b;
+        }
+
+        if (image != null && !Files.exists(Paths.get(image))) {
+            System.err.println("Plateau " + level + ": image " + image + " absente, plateau neutre");
+            image = null;
+        }
+        return new Board(level, finalSquare, jumps, image, cols,
+                nCoords > 0 ? Arrays.copyOf(xs, nCoords) : null,
+                nCoords > 0 ? Arrays.copyOf(ys, nCoords) : null);
+    }
+
+    // plateau en grille avec ~1 case sur 10 en saut, pour les essais de montée en charge
+    static void generate(int squares, Path out, long seed) throws IOException {
+        SplittableRandom rng = new SplittableRandom(seed);
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out, StandardCharsets.UTF_8))) {
+            w.println("# Plateau généré: " + squares + " cases, graine " + seed);
+            w.println("cases " + squares);
+            w.println("grille " + Math.max(10, (int) Math.sqrt(squares)));
+            for (int s=1; s<squares; s++) {
+                if (rng.nextInt(10) != 0) continue;
+                int to = Math.max(0, Math.min(squares - 1, s + rng.nextInt(-60, 61)));
+                if (to != s) w.println("saut " + s + " " + to);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("gen")) {
+            generate(Integer.parseInt(args[1]), Paths.get(args[2]), args.length > 3 ? Long.parseLong(args[3]) : 1);
+            args = new String[]{args[2]};
+        }
+        if (args.length == 0) args = new String[]{DIR.resolve("facile.board").toString(), DIR.resolve("difficile.board").toString()};
+        for (String f : args) {
+            long t0 = System.nanoTime();
+            Board b = parse(f, Files.newBufferedReader(Paths.get(f), StandardCharsets.UTF_8));
+            double ms = (System.nanoTime() - t0) / 1e6;
+            int special = 0;
+            for (int s=0; s<=b.finalSquare; s++) if (b.isSpecial(s)) special++;
+            System.out.printf("%s: %d cases, %d sauts, %s, lu en %.2f ms%n", f, b.finalSquare, special,
+                    b.cols > 0 ? "grille de " + b.cols : "coordonnées", ms);
+        }
+    }
+}
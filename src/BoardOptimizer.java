@@ -0,0 +1,302 @@
+package src;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recherche de plateaux équilibrés par recuit simulé.
+ *
+ * Un plateau candidat (mêmes cases, N sauts) est noté sur trois mesures:
+ * coups moyens et écart-type pour finir seul (exacts, BoardAnalytics) et
+ * changements de joueur en tête par partie à deux, simulés avec les vraies
+ * règles (prises de place comprises). Les parties simulées utilisent les
+ * mêmes dés pour tous les candidats, donc deux plateaux proches se
+ * comparent sans bruit. La note est la somme des écarts relatifs au carré.
+ *
+ * Une chaîne de recuit tourne sur chaque coeur, depuis le plateau du niveau
+ * ou un plateau tiré au hasard; les meilleurs plateaux sont écrits au
+ * format de BoardLoader (sortie.board, sortie-2.board, ...), prêts à être
+ * copiés dans ./boards/.
+ *
+ * Pour lancer:
+ *   java src.BoardOptimizer [niveau|cases] [sauts] [coups] [écart-type] [changements de tête] [secondes] [sortie] [graine]
+ *   java src.BoardOptimizer DIFFICILE 0 30 12 3 60 boards/optimise.board
+ */
+class BoardOptimizer {
+    static final int GAMES = Integer.getInteger("oie.optim.games", 2000);
+    static final int MAX_TURNS = 2000;        // au-delà, la partie compte comme interrompue
+    static final double T_START = 0.05, T_END = 0.0005;
+    static final int KEEP = 3;                // plateaux écrits
+    static final long PROGRESS_MS = 1000;
+
+    /* ---------- Layout: un jeu de sauts et ses mesures ---------- */
+    static class Layout {
+        final int[] from, to;
+        double turns, sd, leads, unfinished, cost;
+
+        Layout(int[] from, int[] to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        Layout copy() {
+            Layout l = new Layout(from.clone(), to.clone());
+            l.turns = turns; l.sd = sd; l.leads = leads; l.unfinished = unfinished; l.cost = cost;
+            return l;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("coups %.2f, écart-type %.2f, changements de tête %.2f/partie%s (note %.5f)",
+                    turns, sd, leads, unfinished > 0 ? String.format(", %.1f%% interrompues", unfinished * 100) : "", cost);
+        }
+    }
+
+    final Board base;
+    final int squares, nJumps;
+    final double targetTurns, targetSd, targetLeads;
+    final long seed;
+    final ConcurrentHashMap<String,Layout> found = new ConcurrentHashMap<>();   // meilleur de chaque chaîne
+    final LongAdder evaluations = new LongAdder();
+
+    BoardOptimizer(Board base, int squares, int nJumps, double targetTurns, double targetSd, double targetLeads, long seed) {
+        this.base = base;
+        this.squares = squares;
+        this.nJumps = nJumps;
+        this.targetTurns = targetTurns;
+        this.targetSd = targetSd;
+        this.targetLeads = targetLeads;
+        this.seed = seed;
+    }
+
+    Board compile(Layout l) {
+        int[] jumps = new int[squares + 1];
+        for (int s=0; s<=squares; s++) jumps[s] = s;
+        for (int i=0; i<l.from.length; i++) jumps[l.from[i]] = l.to[i];
+        return new Board("OPTIM", squares, jumps, null, 10, null, null);
+    }
+
+    // toutes les cases doivent pouvoir mener à la case finale, sinon la partie ne finit jamais
+    static boolean finishable(Board b) {
+        int n = b.finalSquare;
+        boolean[] ok = new boolean[n + 1];
+        ok[n] = true;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int s=n-1; s>=0; s--) {
+                if (ok[s]) continue;
+                for (int d=1; d<=6 && !ok[s]; d++) ok[s] = ok[b.destination(s, d)];
+                changed |= ok[s];
+            }
+        }
+        for (int s=0; s<n; s++) if (!b.isSpecial(s) && !ok[s]) return false;
+        return true;
+    }
+
+    /** Mesure et note le plateau; false s'il est injouable. */
+    boolean evaluate(Layout l) {
+        evaluations.add(1);
+        Board b = compile(l);
+        if (!finishable(b)) return false;
+        BoardAnalytics a = new BoardAnalytics(b);
+        l.turns = a.expectedTurns()[0];
+        l.sd = Math.sqrt(Math.max(0, a.turnVariance()[0]));
+
+        List<Player> players = List.of(new Player("J1", GameEngine.pawnColor(0), true),
+                                       new Player("J2", GameEngine.pawnColor(1), true));
+        GameEngine e = new GameEngine(b, players);
+        DiceRng rng = new DiceRng(0);
+        long changes = 0, unfinished = 0;
+        for (int g=0; g<GAMES; g++) {
+            e.reset();
+            rng.state = seed + g;
+            int leader = -1;
+            while (!e.isOver() && e.turns < MAX_TURNS) {
+                e.roll(rng);
+                int p0 = e.pos[0], p1 = e.pos[1];
+                int lead = p0 > p1 ? 0 : p1 > p0 ? 1 : leader;
+                if (leader >= 0 && lead != leader) changes++;
+                leader = lead;
+            }
+            if (!e.isOver()) unfinished++;
+        }
+        l.leads = changes / (double) GAMES;
+        l.unfinished = unfinished / (double) GAMES;
+        l.cost = sq((l.turns - targetTurns) / targetTurns) + sq((l.sd - targetSd) / targetSd)
+                + sq((l.leads - targetLeads) / targetLeads) + 10 * l.unfinished;
+        return true;
+    }
+
+    private static double sq(double x) { return x * x; }
+
+    // sauts valides: départs distincts hors 0 et case finale, pas de saut qui arrive sur un autre saut
+    boolean valid(int[] from, int[] to) {
+        boolean[] start = new boolean[squares + 1];
+        for (int i=0; i<from.length; i++) {
+            int a = from[i], b = to[i];
+            if (a < 1 || a >= squares || b < 0 || b > squares || a == b || start[a]) return false;
+            start[a] = true;
+        }
+        for (int b : to) if (start[b]) return false;
+        return true;
+    }
+
+    Layout random(SplittableRandom rnd) {
+        for (;;) {
+            int[] from = new int[nJumps], to = new int[nJumps];
+            for (int i=0; i<nJumps; i++) {
+                from[i] = rnd.nextInt(1, squares);
+                to[i] = i % 2 == 0 ? rnd.nextInt(from[i] + 1, squares + 1) : rnd.nextInt(0, from[i]);
+            }
+            Layout l = new Layout(from, to);
+            if (valid(from, to) && evaluate(l)) return l;
+        }
+    }
+
+    // voisin: un saut déplacé (départ ou arrivée) ou redessiné entièrement
+    Layout neighbour(Layout cur, SplittableRandom rnd) {
+        for (;;) {
+            int[] from = cur.from.clone(), to = cur.to.clone();
+            int i = rnd.nextInt(nJumps);
+            switch (rnd.nextInt(3)) {
+                case 0:  to[i] += rnd.nextInt(-8, 9); break;
+                case 1:  from[i] += rnd.nextInt(-4, 5); break;
+                default:
+                    from[i] = rnd.nextInt(1, squares);
+                    to[i] = rnd.nextInt(0, squares + 1);
+            }
+            if (!valid(from, to)) continue;
+            Layout l = new Layout(from, to);
+            if (evaluate(l)) return l;
+        }
+    }
+
+    // une chaîne de recuit jusqu'à l'échéance; la température baisse avec le temps écoulé
+    void anneal(int chain, Layout start, long t0, long budgetNanos) {
+        SplittableRandom rnd = new SplittableRandom(seed * 31 + chain);
+        Layout cur = start != null ? start : random(rnd), best = cur.copy();
+        for (long now; (now = System.nanoTime()) - t0 < budgetNanos; ) {
+            double progress = (now - t0) / (double) budgetNanos;
+            double temp = T_START * Math.pow(T_END / T_START, progress);
+            Layout next = neighbour(cur, rnd);
+            if (next.cost <= cur.cost || rnd.nextDouble() < Math.exp((cur.cost - next.cost) / temp)) {
+                cur = next;
+                if (cur.cost < best.cost) {
+                    best = cur.copy();
+                    found.put("chaîne " + chain, best);
+                }
+            }
+        }
+        found.putIfAbsent("chaîne " + chain, best);
+    }
+
+    List<Layout> run(Layout start, int threads, long seconds) throws InterruptedException {
+        long t0 = System.nanoTime(), budget = seconds * 1_000_000_000L;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "optimizer");
+            t.setDaemon(true);
+            return t;
+        });
+        for (int c=0; c<threads; c++) {
+            int chain = c;
+            // la moitié des chaînes part du plateau actuel, les autres du hasard
+            Layout from = start != null && c % 2 == 0 ? start.copy() : null;
+            pool.execute(() -> anneal(chain, from, t0, budget));
+        }
+        pool.shutdown();
+        long last = 0;
+        while (!pool.awaitTermination(PROGRESS_MS, TimeUnit.MILLISECONDS)) {
+            long evals = evaluations.sum();
+            Layout best = best();
+            System.out.printf("%3d s  %,d plateaux évalués (%,d/s)  meilleur: %s%n",
+                    (System.nanoTime() - t0) / 1_000_000_000L, evals, (evals - last) * 1000 / PROGRESS_MS,
+                    best == null ? "-" : best);
+            last = evals;
+        }
+        List<Layout> all = new ArrayList<>(found.values());
+        all.sort(Comparator.comparingDouble(l -> l.cost));
+        return all;
+    }
+
+    private Layout best() {
+        Layout best = null;
+        for (Layout l : found.values()) if (best == null || l.cost < best.cost) best = l;
+        return best;
+    }
+
+    void write(Layout l, Path out) throws IOException {
+        Integer[] order = new Integer[nJumps];
+        for (int i=0; i<nJumps; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(i -> l.from[i]));
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(out, StandardCharsets.UTF_8))) {
+            w.println("# Plateau optimisé (BoardOptimizer, graine " + seed + "): " + squares + " cases, " + nJumps + " sauts");
+            w.printf(Locale.ROOT, "# visé: coups %.1f, écart-type %.1f, changements de tête %.1f/partie%n",
+                    targetTurns, targetSd, targetLeads);
+            w.println("# obtenu: " + l);
+            w.println("cases " + squares);
+            // mêmes positions de cases que le plateau d'origine; l'image, elle, montrerait les anciens sauts
+            if (base != null && base.cols == 0) {
+                for (int s=0; s<=squares; s+=8) {
+                    StringBuilder sb = new StringBuilder("coords");
+                    for (int k=s; k<Math.min(s + 8, squares + 1); k++) sb.append(' ').append(base.xs[k]).append(',').append(base.ys[k]);
+                    w.println(sb);
+                }
+            } else {
+                w.println("grille " + (base != null ? base.cols : Math.max(10, (int) Math.sqrt(squares))));
+            }
+            w.println("# échelles");
+            for (int i : order) if (l.to[i] > l.from[i]) w.println("saut " + l.from[i] + " " + l.to[i]);
+            w.println("# serpents");
+            for (int i : order) if (l.to[i] < l.from[i]) w.println("saut " + l.from[i] + " " + l.to[i]);
+        }
+    }
+
+    static Layout fromBoard(Board b) {
+        IntList from = new IntList(), to = new IntList();
+        for (int s=0; s<=b.finalSquare; s++) {
+            if (!b.isSpecial(s)) continue;
+            from.add(s);
+            to.add(b.jumps[s]);
+        }
+        return new Layout(Arrays.copyOf(from.a, from.size), Arrays.copyOf(to.a, to.size));
+    }
+
+    public static void main(String[] args) throws Exception {
+        String what = args.length > 0 ? args[0].toUpperCase() : "DIFFICILE";
+        Board base = what.chars().allMatch(Character::isDigit) ? null : Board.forLevel(what);
+        int squares = base != null ? base.finalSquare : Integer.parseInt(what);
+        int jumps = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        Layout start = base != null ? fromBoard(base) : null;
+        if (jumps <= 0) jumps = start != null ? start.from.length : Math.max(2, squares / 6);
+        if (start != null && start.from.length != jumps) start = null;
+        double turns = args.length > 2 ? Double.parseDouble(args[2]) : 30;
+        double sd = args.length > 3 ? Double.parseDouble(args[3]) : 12;
+        double leads = args.length > 4 ? Double.parseDouble(args[4]) : 3;
+        long seconds = args.length > 5 ? Long.parseLong(args[5]) : 30;
+        Path out = Paths.get(args.length > 6 ? args[6] : "boards/optimise.board");
+        long seed = args.length > 7 ? Long.parseLong(args[7]) : System.nanoTime();
+        int threads = Integer.getInteger("oie.threads", Runtime.getRuntime().availableProcessors());
+        if (squares < 10 || jumps >= squares / 2 || turns <= 0 || sd <= 0 || leads <= 0) {
+            System.out.println("usage: java src.BoardOptimizer [niveau|cases] [sauts, 0: comme le niveau] [coups] [écart-type] [changements de tête] [secondes] [sortie] [graine]");
+            return;
+        }
+
+        BoardOptimizer opt = new BoardOptimizer(base, squares, jumps, turns, sd, leads, seed);
+        System.out.printf("%d cases, %d sauts, %d fils, %d s, %d parties par plateau, graine %d%n",
+                squares, jumps, threads, seconds, GAMES, seed);
+        if (start != null && opt.evaluate(start)) System.out.println("Plateau actuel: " + start);
+        else start = null;
+
+        List<Layout> best = opt.run(start, threads, seconds);
+        String name = out.getFileName().toString().replaceFirst("\\.board$", "");
+        for (int k=0; k<Math.min(KEEP, best.size()); k++) {
+            Path f = k == 0 ? out : out.resolveSibling(name + "-" + (k + 1) + ".board");
+            opt.write(best.get(k), f);
+            BoardLoader.parse(f.toString(), Files.newBufferedReader(f, StandardCharsets.UTF_8));   // relu comme le jeu le lira
+            System.out.println(f + ": " + best.get(k));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package src;
+import java.util.random.RandomGenerator;
+
+/* ---------- DiceRng: SplitMix64, tout l'état tient dans un long ---------- */
+class DiceRng implements RandomGenerator {
+    long state;
+
+    DiceRng(long seed) { state = seed; }
+
+    @Override
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    int rollDie() { return nextInt(6) + 1; }
+}
@@ -0,0 +1,86 @@
+package src;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Accès disque hors de l'EDT.
+ *
+ * Les lectures ponctuelles (plateaux, historique) passent par le fil
+ * "disk-read"; la suite se chaîne sur l'EDT avec
+ * thenAcceptAsync(..., DiskIo.EDT). Chaque fichier garde son propre fil
+ * d'écriture, ce qui conserve l'ordre des écritures d'un même fichier,
+ * mais toutes les écritures sont comptées ici: tant qu'il en reste une,
+ * les indicateurs "Sauvegarde..." sont affichés, sans rien bloquer.
+ */
+class DiskIo {
+    static final Executor EDT = SwingUtilities::invokeLater;
+    static final int LINGER_MS = 400;   // évite le clignotement des écritures très courtes
+
+    private static final ExecutorService reader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "disk-read");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static final List<JLabel> indicators = new CopyOnWriteArrayList<>();
+
+    static <T> CompletableFuture<T> read(Callable<T> task) {
+        return run(reader, task);
+    }
+
+    /** Lecture sur un fil dédié (ex: décodage des images sur "assets"). */
+    static <T> CompletableFuture<T> read(Callable<T> task, ExecutorService ex) {
+        return run(ex, task);
+    }
+
+    /** Écrit sur le fil du fichier; l'indicateur reste visible jusqu'à la fin. */
+    static <T> CompletableFuture<T> write(ExecutorService writer, Callable<T> task) {
+        if (pending.getAndIncrement() == 0) update();
+        CompletableFuture<T> f = run(writer, task);
+        f.whenComplete((v, ex) -> {
+            if (ex != null) ex.printStackTrace();
+            if (pending.decrementAndGet() == 0) update();
+        });
+        return f;
+    }
+
+    private static <T> CompletableFuture<T> run(ExecutorService ex, Callable<T> task) {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        ex.execute(() -> {
+            try {
+                f.complete(task.call());
+            } catch(Throwable e) {
+                f.completeExceptionally(e);
+            }
+        });
+        return f;
+    }
+
+    static int pending() { return pending.get(); }
+
+    /** Étiquette visible pendant les écritures (à créer sur l'EDT). */
+    static JLabel indicator() {
+        JLabel l = new JLabel("Sauvegarde...");
+        l.setVisible(pending.get() > 0);
+        indicators.add(l);
+        return l;
+    }
+
+    private static void update() {
+        EDT.execute(() -> {
+            if (pending.get() > 0) {
+                for (JLabel l : indicators) l.setVisible(true);
+                return;
+            }
+            javax.swing.Timer t = new javax.swing.Timer(LINGER_MS, e -> {
+                if (pending.get() == 0) for (JLabel l : indicators) l.setVisible(false);
+            });
+            t.setRepeats(false);
+            t.start();
+        });
+    }
+}
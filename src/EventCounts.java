@@ -0,0 +1,21 @@
+package src;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/* ---------- EventCounts: agrégats pour les mesures (overlay F3) ---------- */
+class EventCounts implements GameEvents.Handler {
+    final AtomicLongArray counts = new AtomicLongArray(GameEvents.NAMES.length);
+    final AtomicLong points = new AtomicLong();   // points gagnés, pertes comprises
+
+    @Override
+    public void on(int type, int player, int a, int b) {
+        counts.lazySet(type, counts.get(type) + 1);   // un seul fil écrit
+        if (type == GameEvents.SCORE) points.lazySet(points.get() + a);
+    }
+
+    String line(long lost) {
+        return String.format("coups %d  prises %d  sauts %d  rebonds %d  perdus %d",
+                counts.get(GameEvents.ROLL), counts.get(GameEvents.SWAP), counts.get(GameEvents.JUMP),
+                counts.get(GameEvents.BOUNCE), lost);
+    }
+}
@@ -0,0 +1,116 @@
+package src;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.locks.LockSupport;
+
+/* ---------- EventLog: fil qui écrit les événements dans journals/evenements.csv ---------- */
+/*
+ * Au-delà de oie.events.mb Mo (4 par défaut) le fichier est renommé en
+ * evenements.csv.1, les précédents en .2, .3...; oie.events.files fichiers
+ * sont gardés (3 par défaut, courant compris), 0 pour ne rien écrire.
+ */
+class EventLog implements GameEvents.Handler {
+    static final Path FILE = Paths.get("journals", "evenements.csv");
+    static final String HEADER = "date,evenement,joueur,a,b\n";
+    static final long MAX_BYTES = Long.getLong("oie.events.mb", 4) << 20;
+    static final int KEEP = Integer.getInteger("oie.events.files", 3);
+    static final long POLL_MS = 100;
+    static final int BATCH = 4096;
+
+    final GameEvents bus;
+    final GameEvents.Reader log, metrics;
+    final EventCounts counts = new EventCounts();
+    private final StringBuilder line = new StringBuilder(64);
+    private Writer out;
+    private long lostWritten;
+    private long size;   // taille du fichier courant, à quelques accents près
+
+    EventLog(GameEvents bus) {
+        this.bus = bus;
+        this.log = bus.reader();
+        this.metrics = bus.reader();
+    }
+
+    private boolean started;
+
+    // les deux consommateurs partagent le fil mais gardent chacun leur curseur; sans effet la deuxième fois
+    synchronized void start() {
+        if (started) return;
+        started = true;
+        Thread t = new Thread(() -> {
+            try {
+                if (KEEP > 0) open();
+            } catch(IOException e) {
+                e.printStackTrace();
+                out = null;
+            }
+            for (;;) {
+                bus.poll(metrics, counts, Integer.MAX_VALUE);
+                int n = out == null ? 0 : bus.poll(log, this, BATCH);
+                if (out != null && log.lost > lostWritten) {
+                    write(-1, log.lost - lostWritten, 0, 0);
+                    lostWritten = log.lost;
+                }
+                try {
+                    if (n > 0) out.flush();
+                    if (out != null && size >= MAX_BYTES) rotate();
+                } catch(IOException e) {
+                    e.printStackTrace();
+                }
+                if (n < BATCH) LockSupport.parkNanos(POLL_MS * 1_000_000);
+            }
+        }, "events-writer");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(FILE.getParent());
+        boolean fresh = !Files.exists(FILE);
+        size = fresh ? 0 : Files.size(FILE);
+        out = Files.newBufferedWriter(FILE, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (fresh) {
+            out.write(HEADER);
+            size += HEADER.length();
+        }
+    }
+
+    // evenements.csv devient .1, .1 devient .2...; le plus ancien au-delà de KEEP est supprimé
+    private void rotate() throws IOException {
+        out.close();
+        out = null;
+        if (KEEP > 1) {
+            Files.deleteIfExists(rotated(KEEP - 1));
+            for (int k=KEEP-2; k>=1; k--)
+                if (Files.exists(rotated(k))) Files.move(rotated(k), rotated(k + 1), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(FILE, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(FILE);
+        }
+        open();
+    }
+
+    static Path rotated(int k) {
+        return FILE.resolveSibling(FILE.getFileName() + "." + k);
+    }
+
+    @Override
+    public void on(int type, int player, int a, int b) {
+        write(type, player, a, b);
+    }
+
+    private void write(int type, long player, int a, int b) {
+        line.setLength(0);
+        line.append(System.currentTimeMillis()).append(',')
+            .append(type < 0 ? "perdus" : GameEvents.NAMES[type]).append(',')
+            .append(player).append(',').append(a).append(',').append(b).append('\n');
+        size += line.length();
+        try {
+            out.append(line);
+        } catch(IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
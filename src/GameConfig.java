@@ -0,0 +1,27 @@
+package src;
+import java.io.*;
+
+/* ---------- Config for a new game ---------- */
+class GameConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    String level; // "FACILE" or "DIFFICILE": plateau boards/<niveau>.board
+    int nPlayers;
+    boolean includeAI;
+    boolean reroll;   // variante: on peut relancer une fois le dé avant de jouer
+
+    GameConfig(String level, int nPlayers, boolean includeAI) {
+        this.level = level;
+        this.nPlayers = nPlayers;
+        this.includeAI = includeAI;
+    }
+
+    // options encodées sur un octet dans les journaux et sauvegardes
+    int flags() { return (includeAI ? 1 : 0) | (reroll ? 2 : 0); }
+
+    static GameConfig withFlags(String level, int nPlayers, int flags) {
+        GameConfig c = new GameConfig(level, nPlayers, (flags & 1) != 0);
+        c.reroll = (flags & 2) != 0;
+        return c;
+    }
+}
@@ -0,0 +1,276 @@
+package src;
+import java.awt.Color;
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/* ---------- GameEngine: règles du jeu sans aucune UI ---------- */
+class GameEngine {
+    static final Color[] PAWN_COLORS = new Color[]{Color.RED, Color.BLUE, Color.GREEN, Color.ORANGE};
+    static final int CROWD_COLORS = 12;   // teintes générées au-delà des 4 pions classiques
+    static final Color[] CROWD_PALETTE = new Color[CROWD_COLORS];
+    static {
+        for (int i=0; i<CROWD_COLORS; i++)
+            CROWD_PALETTE[i] = Color.getHSBColor(i / (float) CROWD_COLORS, 0.75f, 0.85f);
+    }
+
+    final Board board;
+    final List<Player> players;
+    // mode foule: plus de pions que de couleurs classiques, un tour complet par clic,
+    // prise de place seulement entre pions seuls sur leur case
+    final boolean crowd;
+    final int[] pos, score; // état des pions, dans l'ordre de players
+    int currentPlayer = 0;
+    int turns = 0;
+    int swaps = 0;          // prises de place
+    int specialHits = 0;    // effets de cases spéciales déclenchés
+    int winner = -1;
+    GameEvents events;      // null: aucun événement publié (simulations, serveur)
+
+    // issue d'un coup renvoyée par step(): combinaison de ces bits
+    static final int BOUNCED = 1, JUMPED = 2, SWAPPED = 4, EFFECT = 8, WON = 16;
+    // détail du dernier coup joué
+    int lastPlayer, lastDie, lastFrom, lastTarget, lastPoints, lastLost, lastOpponent = -1, lastEffect = -1;
+
+    // index case -> pions: listes chaînées dans des tableaux, mises à jour à chaque déplacement
+    final int[] head;       // premier pion sur la case, -1 si vide
+    final int[] next, prev; // voisins du pion dans la liste de sa case
+
+    GameEngine(Board board, List<Player> players) {
+        this.board = board;
+        this.players = players;
+        this.crowd = players.size() > PAWN_COLORS.length;
+        pos = new int[players.size()];
+        score = new int[players.size()];
+        head = new int[board.finalSquare + 1];
+        next = new int[players.size()];
+        prev = new int[players.size()];
+        reindex();
+    }
+
+    GameEngine(GameConfig cfg) {
+        this(Board.forLevel(cfg.level), createPlayers(cfg));
+    }
+
+    static List<Player> createPlayers(GameConfig cfg) {
+        int n = cfg.nPlayers;
+        List<Player> list = new ArrayList<>(n + 1);
+        for (int i=0;i<n;i++)
+            list.add(new Player("J"+(i+1), pawnColor(i), true));
+        if (cfg.includeAI)
+            list.add(new Player("AI", pawnColor(n), false));
+        return list;
+    }
+
+    // couleurs classiques pour les 4 premiers pions, palette générée ensuite
+    static Color pawnColor(int i) {
+        return i < PAWN_COLORS.length ? PAWN_COLORS[i] : CROWD_PALETTE[colorSlot(i) - PAWN_COLORS.length];
+    }
+
+    // numéro de couleur du pion i: les pions d'une même couleur sont dessinés ensemble
+    static int colorSlot(int i) {
+        return i < PAWN_COLORS.length ? i : PAWN_COLORS.length + i % CROWD_COLORS;
+    }
+
+    // remet la partie au départ en gardant les mêmes joueurs
+    void reset() {
+        Arrays.fill(pos, 0);
+        Arrays.fill(score, 0);
+        reindex();
+        currentPlayer = 0;
+        turns = 0;
+        swaps = 0;
+        specialHits = 0;
+        winner = -1;
+    }
+
+    Player current() { return players.get(currentPlayer); }
+
+    Player winner() { return winner < 0 ? null : players.get(winner); }
+
+    /** Place un pion (reprise d'une sauvegarde); appeler reindex() ensuite. */
+    void set(int i, int position, int points) {
+        pos[i] = position;
+        score[i] = points;
+    }
+
+    /** Reprend une position en cours de partie (parties de brouillon). */
+    void load(int[] position, int[] points, int cur) {
+        System.arraycopy(position, 0, pos, 0, pos.length);
+        System.arraycopy(points, 0, score, 0, score.length);
+        reindex();
+        currentPlayer = cur;
+        turns = 0;
+        swaps = 0;
+        specialHits = 0;
+        winner = -1;
+    }
+
+    // reconstruit l'index depuis les positions des joueurs
+    void reindex() {
+        Arrays.fill(head, -1);
+        for (int i=pos.length-1; i>=0; i--) link(i, pos[i]);
+    }
+
+    private void link(int i, int square) {
+        int h = head[square];
+        next[i] = h;
+        prev[i] = -1;
+        if (h >= 0) prev[h] = i;
+        head[square] = i;
+    }
+
+    private void unlink(int i, int square) {
+        if (prev[i] >= 0) next[prev[i]] = next[i];
+        else head[square] = next[i];
+        if (next[i] >= 0) prev[next[i]] = prev[i];
+    }
+
+    private void moveTo(int i, int square) {
+        unlink(i, pos[i]);
+        pos[i] = square;
+        link(i, square);
+    }
+
+    // pion à déloger sur la case, sauf self. Partie classique: le premier dans
+    // l'ordre des joueurs (4 pions au plus). Foule: le dernier arrivé, tête de
+    // la liste de la case, en temps constant même avec des centaines de pions.
+    int occupant(int square, int self) {
+        if (!crowd) {
+            for (int i=0; i<pos.length; i++)
+                if (i != self && pos[i] == square) return i;
+            return -1;
+        }
+        return lastArrived(square, self);
+    }
+
+    private int lastArrived(int square, int self) {
+        int h = head[square];
+        return h == self ? next[h] : h;
+    }
+
+    // un seul pion sur la case, sans compter self
+    private boolean single(int square, int self) {
+        int o = lastArrived(square, self);
+        return o >= 0 && (next[o] == self ? next[self] : next[o]) < 0;
+    }
+
+    /** Pions sur la case, du plus récent au plus ancien arrivé. */
+    int firstOn(int square) { return head[square]; }
+
+    int nextOn(int pawn) { return next[pawn]; }
+
+    boolean isOver() { return winner >= 0; }
+
+    int roll(RandomGenerator rng) {
+        return step(rng.nextInt(6)+1);
+    }
+
+    /** Joue un coup et décrit ce qui s'est passé (interface, serveur). */
+    TurnResult playTurn(int die) {
+        int code = step(die);
+        TurnResult r = new TurnResult();
+        r.player = players.get(lastPlayer);
+        r.die = die;
+        r.from = lastFrom;
+        r.target = lastTarget;
+        r.bounced = (code & BOUNCED) != 0;
+        r.jumped = (code & JUMPED) != 0;
+        r.opponent = lastOpponent < 0 ? null : players.get(lastOpponent);
+        r.points = lastPoints;
+        r.lost = lastLost;
+        r.effectDest = lastEffect;
+        r.won = (code & WON) != 0;
+        r.next = players.get(currentPlayer);
+        return r;
+    }
+
+    /**
+     * Règles d'un coup sur les tableaux seulement: aucune allocation.
+     * Renvoie les bits d'issue; le détail est dans les champs last*.
+     */
+    int step(int die) {
+        int me = currentPlayer, code = 0;
+        int from = pos[me];
+        int target = board.bounce(from, die);
+        if (from + die > board.finalSquare) code |= BOUNCED;
+        GameEvents ev = events;
+        if (ev != null) {
+            ev.publish(GameEvents.ROLL, me, die, from);
+            if ((code & BOUNCED) != 0) ev.publish(GameEvents.BOUNCE, me, from + die, target);
+        }
+
+        int pointsGained;
+        if (target > from) {
+            if (board.isSpecial(target)) {
+                int dest = board.jumps[target];
+                if (dest > target)
+                    pointsGained = (die + (dest - 9)) * 3;
+                else
+                    pointsGained = (target - from) * 3;
+                if (ev != null) ev.publish(GameEvents.JUMP, me, target, dest);
+                target = dest;
+                code |= JUMPED;
+                specialHits++;
+            } else {
+                pointsGained = (target - from) * 3;
+            }
+        } else {
+            pointsGained = (target - from) * 3;
+        }
+        if (ev != null) ev.publish(GameEvents.MOVE, me, from, target);
+
+        int o = occupant(target, me);
+        // foule: pion seul contre pion seul; depuis ou vers une case partagée, on la partage.
+        // Sinon les pions délogés retournent sans fin sur la case commune et personne n'avance.
+        if (crowd && (lastArrived(from, me) >= 0 || !single(target, me))) o = -1;
+        int lost = 0;
+        if (o >= 0) {
+            moveTo(o, from);
+            moveTo(me, target);
+
+            lost = die * -3;
+            score[o] += lost;
+            pointsGained = die*3 + (-lost);
+            score[me] += pointsGained;
+
+            code |= SWAPPED;
+            swaps++;
+            if (ev != null) {
+                ev.publish(GameEvents.SWAP, me, o, target);
+                ev.publish(GameEvents.SCORE, o, lost, score[o]);
+                ev.publish(GameEvents.SCORE, me, pointsGained, score[me]);
+            }
+        } else {
+            moveTo(me, target);
+            score[me] += pointsGained;
+            if (ev != null) ev.publish(GameEvents.SCORE, me, pointsGained, score[me]);
+        }
+
+        int effect = board.jumps[pos[me]];
+        if (effect != pos[me]) {
+            if (ev != null) ev.publish(GameEvents.JUMP, me, pos[me], effect);
+            moveTo(me, effect);
+            code |= EFFECT;
+            specialHits++;
+        }
+
+        lastPlayer = me;
+        lastDie = die;
+        lastFrom = from;
+        lastTarget = target;
+        lastPoints = pointsGained;
+        lastLost = lost;
+        lastOpponent = o;
+        lastEffect = (code & EFFECT) != 0 ? effect : -1;
+
+        turns++;
+        if (pos[me] == board.finalSquare) {
+            code |= WON;
+            winner = me;
+            if (ev != null) ev.publish(GameEvents.WIN, me, score[me], turns);
+        } else {
+            currentPlayer = (currentPlayer + 1) % players.size();
+        }
+        return code;
+    }
+}
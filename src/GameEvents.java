@@ -0,0 +1,98 @@
+package src;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bus des événements de partie: anneau préalloué, un seul producteur.
+ *
+ * GameEngine publie chaque étape d'un coup (dé, rebond, saut, déplacement,
+ * prise de place, score, victoire) dans des tableaux d'int; publier
+ * n'alloue rien et ne prend aucun verrou. Chaque consommateur a son propre
+ * curseur et lit à son rythme. Un consommateur trop lent ne freine jamais
+ * le producteur: quand l'anneau l'a dépassé, il saute les événements
+ * écrasés et les compte dans lost.
+ *
+ * Événement: type, joueur, a, b. Selon le type:
+ *   PARTIE  joueurs, -          DÉ       dé, case de départ
+ *   REBOND  case visée, arrivée SAUT     case, destination
+ *   DÉPLACEMENT départ, arrivée PRISE    adversaire, case
+ *   SCORE   variation, total    VICTOIRE score, coups
+ *   RELANCE dé écarté, -
+ */
+class GameEvents {
+    static final int GAME = 0, ROLL = 1, BOUNCE = 2, JUMP = 3, MOVE = 4, SWAP = 5, SCORE = 6, WIN = 7, REROLL = 8;
+    static final String[] NAMES = {"partie", "dé", "rebond", "saut", "déplacement", "prise", "score", "victoire", "relance"};
+
+    /** Traitement d'un événement; un même objet sert à chaque lecture. */
+    interface Handler {
+        void on(int type, int player, int a, int b);
+    }
+
+    /* ---------- Reader: curseur d'un consommateur ---------- */
+    static class Reader {
+        long next;    // prochaine séquence à lire
+        long lost;    // événements écrasés avant d'avoir été lus
+    }
+
+    final int capacity, mask;
+    private final int[] type, player, a, b;
+    private final AtomicLong cursor = new AtomicLong(-1);   // dernière séquence publiée
+    private long seq;                                       // côté producteur seulement
+
+    GameEvents(int capacityPow2) {
+        capacity = Integer.highestOneBit(Math.max(2, capacityPow2));
+        mask = capacity - 1;
+        type = new int[capacity];
+        player = new int[capacity];
+        a = new int[capacity];
+        b = new int[capacity];
+    }
+
+    void publish(int t, int p, int x, int y) {
+        VarHandle.storeStoreFence();   // le curseur précédent est visible avant qu'on écrase un emplacement
+        int i = (int) (seq & mask);
+        type[i] = t;
+        player[i] = p;
+        a[i] = x;
+        b[i] = y;
+        cursor.lazySet(seq++);   // écriture ordonnée: les champs sont visibles avant le curseur
+    }
+
+    /** Nouveau consommateur, qui commence aux événements à venir. */
+    Reader reader() {
+        Reader r = new Reader();
+        r.next = cursor.get() + 1;
+        return r;
+    }
+
+    /**
+     * Lit au plus max événements; renvoie le nombre traité. L'emplacement de
+     * la séquence cursor + 1 peut être en cours d'écriture: une séquence
+     * est sûre tant que cursor + 1 - séquence < capacity.
+     */
+    int poll(Reader r, Handler h, int max) {
+        int done = 0;
+        while (done < max) {
+            long end = cursor.get();
+            if (r.next > end) break;
+            if (end + 1 - r.next >= capacity) {   // dépassé par le producteur
+                long resume = end + 2 - capacity;
+                r.lost += resume - r.next;
+                r.next = resume;
+            }
+            int i = (int) (r.next & mask);
+            int t = type[i], p = player[i], x = a[i], y = b[i];
+            VarHandle.loadLoadFence();
+            if (cursor.get() + 1 - r.next >= capacity) continue;   // écrasé pendant la lecture: on recommence
+            r.next++;
+            h.on(t, p, x, y);
+            done++;
+        }
+        return done;
+    }
+
+    /** Oublie ce qui n'a pas été lu. */
+    void skip(Reader r) {
+        r.next = cursor.get() + 1;
+    }
+}
@@ -0,0 +1,218 @@
+package src;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Journal binaire d'une partie: la configuration, la graine du dé et un
+ * flux de varints. Les dés sont groupés par deux dans un seul octet, donc
+ * une partie complète tient en quelques dizaines d'octets.
+ *
+ *   "OIEJ" | version | niveau | joueurs (255 + int au-delà de 254) | drapeaux (bit0 = IA, bit1 = relance) | graine (8 octets)
+ *   puis: 16 + (d1-1)*6 + (d2-1) paire de dés | 1..6 dé seul
+ *         | 7 victoire (joueur, score zigzag) | 8 abandon
+ *         | 9 relance (le dernier dé est écarté) | 0 fin
+ */
+class GameJournal {
+    static final int MAGIC = 0x4F49454A;   // "OIEJ"
+    static final int VERSION = 1;
+    static final int END = 0, WIN = 7, ABANDON = 8, REROLL = 9, PAIR = 16;
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "journal-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    final GameConfig cfg;
+    final long seed;
+    private final ByteArrayOutputStream events = new ByteArrayOutputStream(64);
+    private int pendingDie;
+    private boolean closed;
+
+    GameJournal(GameConfig cfg, long seed) {
+        this.cfg = cfg;
+        this.seed = seed;
+    }
+
+    void die(int value) {
+        if (pendingDie == 0) {
+            pendingDie = value;
+        } else {
+            varint(PAIR + (pendingDie - 1) * 6 + (value - 1));
+            pendingDie = 0;
+        }
+    }
+
+    // tout événement vide d'abord le dé en attente pour garder l'ordre
+    private void event(int tag) {
+        if (pendingDie != 0) {
+            varint(pendingDie);
+            pendingDie = 0;
+        }
+        varint(tag);
+    }
+
+    // variante relance: le dernier dé tiré n'est pas joué
+    void reroll() {
+        event(REROLL);
+    }
+
+    void win(int player, int score) {
+        event(WIN);
+        varint(player);
+        varint((score << 1) ^ (score >> 31));
+        end();
+    }
+
+    void abandon() {
+        event(ABANDON);
+        end();
+    }
+
+    private void end() {
+        if (closed) return;
+        event(END);
+        closed = true;
+    }
+
+    boolean isClosed() { return closed; }
+
+    /** Reprend l'écriture d'un journal relu (partie sauvegardée en cours). */
+    static GameJournal resume(JournalReader r) {
+        GameJournal j = new GameJournal(r.cfg, r.seed);
+        for (int i=0; i<r.drawn.size; i++) {
+            int d = r.drawn.get(i);
+            j.die(Math.abs(d));
+            if (d < 0) j.reroll();
+        }
+        return j;
+    }
+
+    private void varint(int v) {
+        while ((v & ~0x7F) != 0) {
+            events.write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        events.write(v);
+    }
+
+    byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + events.size());
+        DataOutputStream d = new DataOutputStream(out);
+        try {
+            d.writeInt(MAGIC);
+            d.writeByte(VERSION);
+            writeLevel(d, cfg.level);
+            writeCount(d, cfg.nPlayers);
+            d.writeByte(cfg.flags());
+            d.writeLong(seed);
+            events.writeTo(d);
+            if (pendingDie != 0) d.writeByte(pendingDie);   // partie en cours
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // un octet jusqu'à 254, sinon 255 suivi d'un int (mode foule)
+    static void writeCount(DataOutputStream d, int v) throws IOException {
+        if (v < 255) {
+            d.writeByte(v);
+        } else {
+            d.writeByte(255);
+            d.writeInt(v);
+        }
+    }
+
+    static int readCount(DataInputStream in) throws IOException {
+        int v = in.readUnsignedByte();
+        return v < 255 ? v : in.readInt();
+    }
+
+    // code d'un niveau livré, sinon 255 suivi du nom (plateau ajouté dans boards/)
+    static void writeLevel(DataOutputStream d, String level) throws IOException {
+        int code = ScoreHistory.levelIndex(level);
+        if (code >= 0) {
+            d.writeByte(code);
+        } else {
+            d.writeByte(255);
+            d.writeUTF(level);
+        }
+    }
+
+    static String readLevel(DataInputStream in) throws IOException {
+        int code = in.readUnsignedByte();
+        if (code == 255) return in.readUTF();
+        if (code >= ScoreHistory.LEVELS.length) throw new IOException("niveau inconnu: " + code);
+        return ScoreHistory.LEVELS[code];
+    }
+
+    /** Écrit le journal dans dir en tâche de fond. */
+    CompletableFuture<Path> saveAsync(Path dir) {
+        byte[] data = toBytes();
+        String name = String.format("%tY%<tm%<td-%<tH%<tM%<tS-%016x.oie", new Date(), seed);
+        return DiskIo.write(writer, () -> {
+            Files.createDirectories(dir);
+            Path f = dir.resolve(name);
+            Files.write(f, data);
+            return f;
+        });
+    }
+}
+
+/**
+ * Rejeu des journaux de parties.
+ *
+ *   java src.GameReplay show  journals/xxx.oie [coup]   état après le coup N
+ *   java src.GameReplay audit journals/                 vérifie tout un dossier
+ */
+class GameReplay {
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("show")) {
+            JournalReader r = new JournalReader(Files.readAllBytes(Paths.get(args[1])));
+            int turn = args.length > 2 ? Integer.parseInt(args[2]) : -1;
+            GameEngine e = r.replay(turn);
+            System.out.println(r.cfg.level + ", " + r.cfg.nPlayers + " joueur(s)" + (r.cfg.includeAI ? " + AI" : "")
+                    + (r.cfg.reroll ? ", relance" : "") + ", graine " + Long.toHexString(r.seed) + ", " + r.dice.size + " coups enregistrés");
+            System.out.println("Après " + e.turns + " coups:");
+            for (int i=0; i<e.players.size(); i++)
+                System.out.println("  " + e.players.get(i).name + " : case " + e.pos[i] + ", " + e.score[i] + " pts");
+            System.out.println(e.isOver() ? "Gagnant: " + e.winner().name : "Tour de " + e.current().name);
+        } else if (args.length >= 2 && args[0].equals("audit")) {
+            audit(Paths.get(args[1]));
+        } else {
+            System.out.println("usage: GameReplay show <journal> [coup] | audit <dossier>");
+        }
+    }
+
+    static void audit(Path dir) throws IOException {
+        LongAdder ok = new LongAdder(), bad = new LongAdder(), turns = new LongAdder();
+        long t0 = System.nanoTime();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.filter(f -> f.toString().endsWith(".oie")).parallel().forEach(f -> {
+                String problem;
+                try {
+                    JournalReader r = new JournalReader(Files.readAllBytes(f));
+                    turns.add(r.dice.size);
+                    problem = r.audit();
+                } catch(IOException e) {
+                    problem = e.getMessage();
+                }
+                if (problem == null) {
+                    ok.increment();
+                } else {
+                    bad.increment();
+                    System.out.println(f + ": " + problem);
+                }
+            });
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        long total = ok.sum() + bad.sum();
+        System.out.printf("%d journaux (%d coups) en %.2f s, %.0f journaux/s: %d corrects, %d contestés%n",
+                total, turns.sum(), secs, total / secs, ok.sum(), bad.sum());
+    }
+}
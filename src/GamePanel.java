@@ -0,0 +1,824 @@
+package src;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.image.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+/* ---------- GamePanel: rendu et interaction (règles dans GameEngine) ---------- */
+class GamePanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    MainFrame parent;
+    GameConfig cfg;
+    AssetCache assets = AssetCache.shared();
+    String boardPath;
+    BufferedImage boardImage;
+    int boardSizeX, boardSizeY;
+
+    final int MAX_PLAYERS = 4;
+    Color[] pawnColors = GameEngine.PAWN_COLORS;
+
+    GameEngine engine;
+    List<Player> players;
+    int currentPlayer = 0;
+    DiceRng rand = new DiceRng(0);
+    GameJournal journal;
+    static final Path JOURNAL_DIR = Paths.get("journals");
+    static final int AUTOSAVE_MS = 15_000;
+    javax.swing.Timer autosave = new javax.swing.Timer(AUTOSAVE_MS, e -> autosave());
+    int savedTurns;
+    boolean deciding;   // dé tiré mais pas encore joué: pas de sauvegarde
+
+    // l'ordinateur joue seul après une courte pause; la recherche tourne hors EDT
+    static final int AI_DELAY_MS = 700;
+    TurnPlanner planner;
+    int aiToken;
+
+    // chances de victoire, recalculées hors EDT après chaque coup (pas en mode foule)
+    WinOdds odds;
+    WinOdds.Odds shownOdds;
+    int oddsToken;
+
+    int finalSquare = 100;
+    JLabel statusLabel;
+    JButton rollBtn;
+    JLabel diceLabel;
+
+    PawnAnimator animator = new PawnAnimator(this);
+
+    // événements de partie, lus chacun à son rythme par la barre d'état (ici, sur l'EDT),
+    // le fichier journals/evenements.csv et les compteurs de l'overlay F3
+    final GameEvents events = new GameEvents(1 << 14);
+    final GameEvents.Reader statusReader = events.reader();
+    final StatusText status = new StatusText();
+    final EventLog eventLog = new EventLog(events);
+
+    /* barre d'état d'un coup, reconstruite à partir de ses événements */
+    class StatusText implements GameEvents.Handler {
+        final StringBuilder sb = new StringBuilder(128);
+        int mover = -1, die, target, points, opponent = -1, effect = -1, rerolled;
+        boolean moved, won;
+
+        @Override
+        public void on(int type, int player, int a, int b) {
+            switch (type) {
+                case GameEvents.REROLL: rerolled = a; break;
+                case GameEvents.ROLL:   mover = player; die = a; break;
+                case GameEvents.MOVE:   target = b; moved = true; break;
+                case GameEvents.JUMP:   if (moved) effect = b; break;   // avant le déplacement: déjà compté dans target
+                case GameEvents.SWAP:   opponent = a; break;
+                case GameEvents.SCORE:  if (player == mover) points = a; break;
+                case GameEvents.WIN:    won = true; break;
+                default:
+            }
+        }
+
+        String text() {
+            sb.setLength(0);
+            if (rerolled > 0) sb.append("(relance du ").append(rerolled).append(") ");
+            String name = players.get(mover).name;
+            if (opponent >= 0)
+                sb.append(name).append(" a pris la place de ").append(players.get(opponent).name)
+                  .append(". ").append(name).append(" gagne ").append(points).append(" pts.");
+            else
+                sb.append(name).append(" a lancé ").append(die).append(" et va en case ").append(target)
+                  .append(" (+").append(points).append(" pts).");
+            if (effect >= 0) sb.append(" -> effet case! va en ").append(effect);
+            if (!won) sb.append("  |  Tour de ").append(engine.current().name);
+            mover = opponent = effect = -1;
+            rerolled = 0;
+            moved = won = false;
+            return sb.toString();
+        }
+    }
+
+    GamePanel(MainFrame p){
+        parent = p;
+        setLayout(null);
+
+        statusLabel = new JLabel("Bienvenue !");
+        statusLabel.setBounds(10, 10, 600, 20);
+        add(statusLabel);
+
+        rollBtn = new JButton("Lancer le dé");
+        rollBtn.setBounds(10,40,130,30);
+        rollBtn.addActionListener(e -> doRoll());
+        add(rollBtn);
+
+        diceLabel = new JLabel();
+        diceLabel.setBounds(150,40,80,80);
+        add(diceLabel);
+
+        JLabel saving = DiskIo.indicator();
+        saving.setBounds(240,45,120,20);
+        add(saving);
+
+        JButton back = new JButton("Abandonner");
+        back.setBounds(10,130,120,30);
+        back.addActionListener(e -> abandonGame());
+        add(back);
+
+        // redimensionnement: image étirée tant que la taille bouge, plateau net ensuite
+        resizeEnd.setRepeats(false);
+        addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override
+            public void componentResized(java.awt.event.ComponentEvent e) {
+                resizing = true;
+                resizeEnd.restart();
+            }
+        });
+
+        // F3: mesures en direct (EDT, rendu, tas, fichiers, événements)
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke("F3"), "metrics");
+        getActionMap().put("metrics", new AbstractAction() {
+            private static final long serialVersionUID = 1L;
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) { toggleMetrics(); }
+        });
+    }
+
+    static final Rectangle METRICS_BOX = new Rectangle(10,480,340,118);
+    javax.swing.Timer metricsTimer = new javax.swing.Timer(500, e -> {
+        metricsLines = overlayLines();
+        repaint(METRICS_BOX);
+    });
+    String[] metricsLines;
+    TurnPlanner.Plan lastPlan;   // dernière recherche de l'AI, pour l'overlay
+
+    String[] overlayLines() {
+        String[] m = Metrics.overlayLines();
+        String[] l = Arrays.copyOf(m, m.length + 2);
+        l[m.length] = "jeu   " + eventLog.counts.line(eventLog.metrics.lost);
+        TurnPlanner.Plan p = lastPlan;
+        l[m.length + 1] = "AI    " + (p == null ? "-" : p);
+        return l;
+    }
+
+    void toggleMetrics() {
+        if (metricsTimer.isRunning()) {
+            metricsTimer.stop();
+            metricsLines = null;
+        } else {
+            Metrics.startEdtProbe();
+            metricsLines = overlayLines();
+            metricsTimer.start();
+        }
+        repaint(METRICS_BOX);
+    }
+
+    int setupToken;
+
+    // plateau (fichier .board) et son image lus hors de l'EDT; la partie démarre ensuite sur l'EDT
+    void startNewGame(GameConfig c) {
+        if (GameSnapshot.exists())
+            GameSnapshot.discardAsync(true);   // la partie sauvegardée est abandonnée
+        loadGame(c);
+    }
+
+    void loadGame(GameConfig c) {
+        int token = ++setupToken;
+        autosave.stop();
+        animator.cancel();
+        cancelAi();
+        engine = null;
+        players = null;
+        rollBtn.setEnabled(false);
+        statusLabel.setText("Chargement du plateau...");
+        repaint();
+
+        long seed = ThreadLocalRandom.current().nextLong();
+        DiskIo.read(() -> new GameEngine(c))
+            .thenCompose(e -> loadBoardImage(e).thenApply(img -> e))
+            .whenCompleteAsync((e, ex) -> {
+                if (token != setupToken) return;
+                if (e == null) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    statusLabel.setText("Plateau illisible: " + cause.getMessage());
+                    return;
+                }
+                setupGame(c, e, new DiceRng(seed), new GameJournal(c, seed));
+                statusLabel.setText("Tour de " + players.get(currentPlayer).name);
+                repaint();
+            }, DiskIo.EDT);
+    }
+
+    /** Décode l'image du plateau en tâche de fond; setupGame la trouvera en cache. */
+    static CompletableFuture<BufferedImage> loadBoardImage(GameEngine e) {
+        return e.board.image == null ? CompletableFuture.completedFuture(null)
+                : AssetCache.shared().imageAsync(e.board.image);
+    }
+
+    void resumeGame(GameSnapshot s) {
+        ++setupToken;
+        setupGame(s.cfg, s.engine, s.rng, s.journal);
+        statusLabel.setText("Partie reprise  |  Tour de " + players.get(currentPlayer).name);
+        repaint();
+    }
+
+    private void setupGame(GameConfig c, GameEngine e, DiceRng rng, GameJournal j) {
+        animator.cancel();
+        showBoard(c, e);
+
+        rand = rng;
+        journal = j;
+        eventLog.start();
+        engine.events = events;
+        events.skip(statusReader);
+        events.publish(GameEvents.GAME, -1, e.players.size(), e.turns);
+
+        savedTurns = engine.turns;
+        autosave.restart();
+
+        cancelAi();
+        planner = cfg.includeAI && cfg.reroll && !engine.crowd ? new TurnPlanner(engine.board, true) : null;
+        odds = null;
+        updateOdds();
+        if (!engine.crowd) {
+            GameEngine game = engine;
+            WinOdds.createAsync(engine.board, players).thenAcceptAsync(o -> {
+                if (engine != game) return;   // une autre partie a commencé entre-temps
+                odds = o;
+                updateOdds();
+            }, DiskIo.EDT);
+        }
+        rollBtn.setText(engine.crowd ? "Tour complet" : "Lancer le dé");
+        rollBtn.setEnabled(engine.crowd || engine.current().human);
+        if (!engine.crowd && !engine.current().human) scheduleAi();
+    }
+
+    /** Plateau et pions de e à l'affichage, sans rien lancer (export des rejeux). */
+    void showBoard(GameConfig c, GameEngine e) {
+        this.cfg = c;
+        String path = boardPath = e.board.image;
+        // normalement déjà décodée par loadBoardImage; après une éviction du cache, le décodage
+        // repart sur le fil "assets" et le plateau neutre sert en attendant. Hors EDT (export), on attend.
+        CompletableFuture<BufferedImage> img = path == null ? CompletableFuture.completedFuture(null) : assets.imageAsync(path);
+        if (img.isDone() || !SwingUtilities.isEventDispatchThread()) {
+            useBoardImage(img.join(), false);
+        } else {
+            useBoardImage(null, true);
+            img.thenAcceptAsync(b -> {
+                if (!path.equals(boardPath)) return;   // autre plateau entre-temps
+                useBoardImage(b, false);
+                repaint();
+            }, DiskIo.EDT);
+        }
+
+        engine = e;
+        finalSquare = e.board.finalSquare;
+        players = e.players;
+        currentPlayer = e.currentPlayer;
+    }
+
+    private void useBoardImage(BufferedImage img, boolean loading) {
+        boardImage = img;
+        if (boardImage == null) {
+            if (!loading) boardPath = null;
+            boardImage = new BufferedImage(800,800,BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = boardImage.createGraphics();
+            g.setColor(Color.LIGHT_GRAY); g.fillRect(0,0,800,800);
+            g.setColor(Color.BLACK);
+            g.drawString(loading ? "Chargement du plateau..." : "Image de plateau non trouvée dans ./assets/",10,20);
+            g.dispose();
+        }
+        boardSizeX = boardImage.getWidth();
+        boardSizeY = boardImage.getHeight();
+        layoutW = -1;   // nouveau repère: transformation et cases à recalculer
+    }
+
+    // images demandées depuis l'EDT et pas encore prêtes: une seule demande par taille
+    private final Map<String,CompletableFuture<BufferedImage>> pendingImages = new HashMap<>();
+
+    /**
+     * Image à la taille w x h si elle est en cache, sinon null: elle est calculée
+     * sur le fil "assets" et un repaint suit son arrivée. Hors EDT (export des
+     * rejeux, bancs d'essai), on attend l'image.
+     */
+    private BufferedImage scaledNow(String path, int w, int h) {
+        if (!SwingUtilities.isEventDispatchThread()) return assets.scaled(path, w, h);
+        String key = path + "@" + w + "x" + h;
+        CompletableFuture<BufferedImage> f = pendingImages.get(key);
+        if (f == null) {
+            f = assets.scaledAsync(path, w, h);
+            if (!f.isDone()) {
+                pendingImages.put(key, f);
+                f.whenCompleteAsync((b, ex) -> {
+                    pendingImages.remove(key);
+                    repaint();
+                }, DiskIo.EDT);
+            }
+        }
+        return f.isDone() && !f.isCompletedExceptionally() ? f.join() : null;
+    }
+
+    // sauvegarde automatique périodique, seulement si un coup a été joué depuis
+    private void autosave() {
+        if (engine == null || engine.isOver() || deciding || engine.turns == savedTurns) return;
+        savedTurns = engine.turns;
+        new GameSnapshot(cfg, engine, rand, journal).saveAsync();
+    }
+
+    /** Sauvegarde la partie en cours; null s'il n'y a rien à sauvegarder. */
+    CompletableFuture<?> suspendGame() {
+        autosave.stop();
+        animator.cancel();
+        cancelAi();
+        rollBtn.setEnabled(true);
+        if (engine == null || engine.isOver()) return null;
+        savedTurns = engine.turns;
+        return new GameSnapshot(cfg, engine, rand, journal).saveAsync();
+    }
+
+    void doRoll(){
+        if (engine.crowd) {
+            playRound();
+            return;
+        }
+        if (animator.isRunning() || !engine.current().human) return;
+        int die = rand.rollDie();
+        if (cfg.reroll) {
+            showDiceFace(die);
+            deciding = true;
+            int answer = JOptionPane.showConfirmDialog(this,
+                    engine.current().name + " a fait " + die + ". Relancer le dé ?",
+                    "Relance", JOptionPane.YES_NO_OPTION);
+            deciding = false;
+            if (answer == JOptionPane.YES_OPTION) {
+                journal.die(die);
+                journal.reroll();
+                events.publish(GameEvents.REROLL, engine.currentPlayer, die, 0);
+                die = rand.rollDie();
+            }
+        }
+        play(die);
+    }
+
+    // mode foule: un clic joue un tour complet, chaque pion lance une fois, sans animation
+    void playRound() {
+        Metrics.TurnEvent ev = new Metrics.TurnEvent();
+        ev.begin();
+        int start = engine.currentPlayer, played = 0, die = 0;
+        do {
+            die = rand.rollDie();
+            journal.die(die);
+            engine.playTurn(die);
+            played++;
+        } while (!engine.isOver() && engine.currentPlayer != start);
+        events.skip(statusReader);   // la barre d'état résume le tour autrement
+        if (ev.shouldCommit()) {
+            ev.player = "tous";
+            ev.die = die;
+            ev.turns = played;
+            ev.commit();
+        }
+
+        showDiceFace(die);
+        currentPlayer = engine.currentPlayer;
+        int lead = 0;
+        for (int i=1; i<players.size(); i++) if (engine.pos[i] > engine.pos[lead]) lead = i;
+        statusLabel.setText("Tour complet: " + played + " coups. En tête: " + players.get(lead).name + " case " + engine.pos[lead]);
+        repaint();
+        if (engine.isOver()) gameWon(engine.winner());
+    }
+
+    void scheduleAi() {
+        int token = ++aiToken;
+        rollBtn.setEnabled(false);
+        CompletableFuture<TurnPlanner.Plan> plan = planner == null
+                ? CompletableFuture.completedFuture(null)
+                : planner.planAsync(engine, TurnPlanner.BUDGET_MS);
+        javax.swing.Timer t = new javax.swing.Timer(AI_DELAY_MS, e ->
+                plan.whenComplete((pl, ex) -> SwingUtilities.invokeLater(() -> {
+                    if (token == aiToken) aiPlay(pl);
+                })));
+        t.setRepeats(false);
+        t.start();
+    }
+
+    void cancelAi() {
+        aiToken++;
+        if (planner != null) planner.cancel();
+        oddsToken++;
+        if (odds != null) odds.cancel();
+    }
+
+    // la demande précédente, si elle tourne encore, est abandonnée
+    void updateOdds() {
+        int token = ++oddsToken;
+        if (odds == null || engine.isOver()) {
+            shownOdds = null;
+            return;
+        }
+        odds.estimateAsync(engine).thenAcceptAsync(o -> {
+            if (o == null || token != oddsToken) return;
+            shownOdds = o;
+            repaint(SCORE_BOX.x, SCORE_BOX.y, SCORE_BOX.width+1, SCORE_BOX.height+1);
+        }, DiskIo.EDT);
+    }
+
+    // la décision de relancer a été calculée pour chaque face avant de tirer le dé
+    private void aiPlay(TurnPlanner.Plan plan) {
+        int die = rand.rollDie();
+        if (plan != null && plan.reroll[die]) {
+            journal.die(die);
+            journal.reroll();
+            events.publish(GameEvents.REROLL, engine.currentPlayer, die, 0);
+            die = rand.rollDie();
+        }
+        if (plan != null) lastPlan = plan;
+        play(die);
+    }
+
+    private void play(int die){
+        Metrics.TurnEvent ev = new Metrics.TurnEvent();
+        ev.begin();
+        TurnResult r = engine.playTurn(die);
+        journal.die(r.die);
+        if (ev.shouldCommit()) {
+            ev.player = r.player.name;
+            ev.die = r.die;
+            ev.from = r.from;
+            ev.target = r.target;
+            ev.swap = r.opponent != null;
+            ev.turns = 1;
+            ev.commit();
+        }
+        Player p = r.player;
+        showDiceFace(r.die);
+
+        events.poll(statusReader, status, Integer.MAX_VALUE);
+        statusLabel.setText(status.text());
+        if (!r.won) currentPlayer = engine.currentPlayer;
+        updateOdds();
+
+        rollBtn.setEnabled(false);
+        if (isShowing())
+            paintImmediately(SCORE_BOX.x, SCORE_BOX.y, SCORE_BOX.width+1, SCORE_BOX.height+1);
+        animator.animate(r, players, finalSquare, () -> {
+            if (r.won) {
+                gameWon(p);
+            } else if (r.next.human) {
+                rollBtn.setEnabled(true);
+            } else {
+                scheduleAi();
+            }
+        });
+    }
+
+    void abandonGame() {
+        suspendGame();
+        parent.showMenu();
+    }
+
+    void gameWon(Player p) {
+        autosave.stop();
+        rollBtn.setEnabled(true);
+        GameSnapshot.discardAsync(false);
+        int finalScore = engine.score[engine.winner];
+        journal.win(engine.winner, finalScore);
+        journal.saveAsync(JOURNAL_DIR);
+        JOptionPane.showMessageDialog(this,
+                p.name + " a gagné! Score = " + finalScore);
+        GameConfig c = cfg;
+        int turns = engine.turns;
+        // classement ouvert seulement ici: un panneau d'export ne touche pas à scores.dat
+        ScoreManager.shared().ready().thenAcceptAsync(m -> recordWin(m, p, finalScore, c, turns), DiskIo.EDT);
+    }
+
+    // le classement est en mémoire: seules les écritures partent en tâche de fond
+    private void recordWin(ScoreManager scoreManager, Player p, int finalScore, GameConfig c, int turns) {
+        String winnerInitials = p.name.toUpperCase();
+        if (scoreManager.isTopScore(finalScore)) {
+            String initials = JOptionPane.showInputDialog(this,
+                "Entrer vos initiales (3 lettres)", "WINNER",
+                JOptionPane.PLAIN_MESSAGE);
+
+            if (initials != null) {
+                initials = initials.trim().toUpperCase();
+                if (initials.length() > 3)
+                    initials = initials.substring(0, 3);
+                scoreManager.addScore(initials, finalScore);
+                winnerInitials = initials;
+            }
+        }
+
+        ScoreHistory.recordAsync(new GameRecord(System.currentTimeMillis(), c.level,
+                c.nPlayers, c.includeAI, !p.human, turns, finalScore, winnerInitials));
+        parent.showStats();
+    }
+
+    int diceShown;
+
+    // face en cache: affichée tout de suite; sinon le chiffre, puis l'image une fois décodée
+    void showDiceFace(int n){
+        diceShown = n;
+        CompletableFuture<BufferedImage> f = assets.scaledAsync(AssetCache.dicePath(n), AssetCache.DICE_SIZE, AssetCache.DICE_SIZE);
+        if (f.isDone()) {
+            setDiceFace(n, f.join());
+        } else {
+            setDiceFace(n, null);
+            f.thenAcceptAsync(d -> { if (diceShown == n) setDiceFace(n, d); }, DiskIo.EDT);
+        }
+    }
+
+    private void setDiceFace(int n, BufferedImage d){
+        if (d != null) {
+            diceLabel.setIcon(new ImageIcon(d));
+            diceLabel.setText("");
+        } else {
+            diceLabel.setIcon(null);
+            diceLabel.setText("Dé: " + n);
+        }
+    }
+
+    // zones fixes du panneau: plateau à droite, boîte des scores à gauche
+    static final int BOARD_X = 200, BOARD_Y = 10;
+    static final Rectangle SCORE_BOX = new Rectangle(10,170,170,300);
+
+    static final int BOARD_MARGIN = 10;
+    static final int RESIZE_SETTLE_MS = 200;
+
+    // plateau -> écran: une seule transformation place l'image, les cases et les pions.
+    // Les cases sont dans le repère de l'image du plateau (boardSizeX x boardSizeY).
+    final AffineTransform boardTx = new AffineTransform();
+    private int layoutW = -1, layoutH;   // taille du panneau pour laquelle boardTx est calculée
+    private int boardW, boardH;          // plateau à l'écran, en pixels logiques
+    private Point[] squares;             // centre de chaque case à l'écran
+
+    boolean resizing;
+    final javax.swing.Timer resizeEnd = new javax.swing.Timer(RESIZE_SETTLE_MS, e -> {
+        resizing = false;
+        repaint();
+    });
+
+    // le plateau remplit la place à droite de la colonne de commandes, proportions gardées
+    private void layoutBoard() {
+        if (getWidth() == layoutW && getHeight() == layoutH) return;
+        layoutW = getWidth();
+        layoutH = getHeight();
+        double scale = Math.min((layoutW - BOARD_X - BOARD_MARGIN) / (double) boardSizeX,
+                                (layoutH - BOARD_Y - BOARD_MARGIN) / (double) boardSizeY);
+        scale = Math.max(scale, 0.1);
+        boardTx.setTransform(scale, 0, 0, scale, BOARD_X, BOARD_Y);
+        boardW = (int) Math.round(boardSizeX * scale);
+        boardH = (int) Math.round(boardSizeY * scale);
+
+        Board b = engine.board;
+        squares = new Point[b.finalSquare + 1];
+        for (int sq=0; sq<=b.finalSquare; sq++) {
+            Point pt = b.point(sq, boardSizeX, boardSizeY);
+            boardTx.transform(pt, pt);
+            squares[sq] = pt;
+        }
+    }
+
+    int boardWidth()  { layoutBoard(); return boardW; }
+    int boardHeight() { layoutBoard(); return boardH; }
+
+    /** Centre de la case à l'écran; partagé, ne pas modifier. */
+    Point squarePoint(int pos) {
+        layoutBoard();
+        return squares[pos];
+    }
+
+    Point pawnPoint(int i) {
+        return squarePoint(engine.pos[i]);
+    }
+
+    // zone couverte par un pion et son nom
+    static Rectangle pawnBounds(Point pt) {
+        return new Rectangle(pt.x-16, pt.y-30, 50, 46);
+    }
+
+    Rectangle[] pawnRects() {
+        Rectangle[] r = new Rectangle[players.size()];
+        if (boardImage == null) return r;
+        for (int i=0; i<r.length; i++)
+            r[i] = pawnBounds(pawnPoint(i));
+        return r;
+    }
+
+    public void paintComponent(Graphics g0){
+        Metrics.PaintEvent ev = new Metrics.PaintEvent();
+        ev.begin();
+        long t0 = System.nanoTime();
+        super.paintComponent(g0);
+        Graphics2D g = (Graphics2D) g0;
+        if (players == null) return;
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        if (boardImage != null) {
+            layoutBoard();
+            paintBoardLayer(g);
+            paintPawnLayer(g, clip);
+        } else {
+            g.setColor(Color.GRAY);
+            g.fillRect(10,10,getWidth()-20,getHeight()-20);
+        }
+
+        if (clip.intersects(SCORE_BOX))
+            paintScoreLayer(g);
+
+        String[] lines = metricsLines;
+        if (lines != null && clip.intersects(METRICS_BOX))
+            Metrics.paintOverlay(g, METRICS_BOX, lines);
+
+        Metrics.frame(System.nanoTime() - t0);
+        StartupTimer.mark("jeu");
+        if (ev.shouldCommit()) {
+            ev.clip = clip.width + "x" + clip.height + "+" + clip.x + "+" + clip.y;
+            ev.pawns = players.size();
+            ev.commit();
+        }
+    }
+
+    // couche plateau: image déjà à l'échelle des pixels de l'écran (zoom et HiDPI compris),
+    // gardée en VolatileImage. Chaque taille en pixels a son image dans AssetCache, calculée
+    // sur le fil "assets"; en attendant, et pendant un redimensionnement, l'image
+    // précédente est simplement étirée.
+    private VolatileImage boardLayer;
+    private String boardLayerKey;
+    private String boardLayerWanted;   // image demandée à AssetCache, pas encore prête
+
+    private void paintBoardLayer(Graphics2D g) {
+        int bw = boardW, bh = boardH;
+        AffineTransform tx = g.getTransform();
+        int pw = (int) Math.round(bw * tx.getScaleX());
+        int ph = (int) Math.round(bh * tx.getScaleY());
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null || pw <= 0 || ph <= 0) {
+            BufferedImage src = boardPath != null ? scaledNow(boardPath, pw, ph) : null;
+            g.drawImage(src != null ? src : boardImage, BOARD_X, BOARD_Y, bw, bh, null);
+            return;
+        }
+
+        String key = boardPath + "@" + pw + "x" + ph;
+        if (!key.equals(boardLayerKey) && (resizing || !ready(key, pw, ph))) {
+            boolean previous = boardLayer != null && boardLayerKey.startsWith(boardPath + "@")
+                    && boardLayer.validate(gc) == VolatileImage.IMAGE_OK;
+            paintStretched(g, previous ? boardLayer : boardImage, bw, bh);
+            return;
+        }
+        BufferedImage src = boardPath != null ? scaledNow(boardPath, pw, ph) : boardImage;
+        if (src == null) src = boardImage;   // absente, ou évincée et en cours de calcul: repeint à l'arrivée
+        do {
+            int state = boardLayer == null || !key.equals(boardLayerKey)
+                    ? VolatileImage.IMAGE_INCOMPATIBLE : boardLayer.validate(gc);
+            if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (boardLayer != null) boardLayer.flush();
+                boardLayer = gc.createCompatibleVolatileImage(pw, ph);
+                boardLayerKey = key;
+            }
+            if (state != VolatileImage.IMAGE_OK) {
+                Graphics2D lg = boardLayer.createGraphics();
+                lg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                lg.drawImage(src, 0, 0, pw, ph, null);
+                lg.dispose();
+            }
+            g.drawImage(boardLayer, BOARD_X, BOARD_Y, bw, bh, null);
+        } while (boardLayer.contentsLost());
+    }
+
+    // image à cette taille déjà calculée? sinon elle est demandée et on repeint à l'arrivée
+    private boolean ready(String key, int pw, int ph) {
+        if (boardPath == null) return true;
+        CompletableFuture<BufferedImage> f = assets.scaledAsync(boardPath, pw, ph);
+        if (f.isDone()) return true;
+        if (!key.equals(boardLayerWanted)) {
+            boardLayerWanted = key;
+            f.thenRunAsync(this::repaint, DiskIo.EDT);
+        }
+        return false;
+    }
+
+    private static void paintStretched(Graphics2D g, Image img, int bw, int bh) {
+        Object hint = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(img, BOARD_X, BOARD_Y, bw, bh, null);
+        if (hint != null) g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, hint);
+    }
+
+    private void paintPawnLayer(Graphics2D g, Rectangle clip) {
+        if (engine.crowd) {
+            paintCrowd(g, clip);
+            return;
+        }
+        // sprites aux pixels de l'écran: nets en HiDPI
+        int px = (int) Math.round(AssetCache.PAWN_SIZE * g.getTransform().getScaleX());
+        int half = AssetCache.PAWN_SIZE / 2;
+        for (int i=0; i<players.size(); i++) {
+            Player p = players.get(i);
+            Point pt = animator.point(i);
+            if (pt == null) pt = pawnPoint(i);
+            if (!clip.intersects(pawnBounds(pt))) continue;
+            String sprite = AssetCache.pawnPath(p.color);
+            BufferedImage pawn = sprite != null ? scaledNow(sprite, px, px) : null;
+            if (pawn != null) {
+                g.drawImage(pawn, pt.x - half, pt.y - half, AssetCache.PAWN_SIZE, AssetCache.PAWN_SIZE, null);
+            } else {
+                g.setColor(p.color);
+                g.fillOval(pt.x-10, pt.y-10, 20, 20);
+            }
+            g.setColor(Color.BLACK);
+            g.drawString(p.name, pt.x-10, pt.y-14);
+        }
+    }
+
+    // mode foule: pions en petits disques rangés 5 x 5 autour du centre de leur case,
+    // regroupés par couleur pour un seul fill() par couleur
+    static final int CROWD_PAWN = 5;
+    private final Path2D.Float[] crowdBatches = new Path2D.Float[GameEngine.PAWN_COLORS.length + GameEngine.CROWD_COLORS];
+
+    private void paintCrowd(Graphics2D g, Rectangle clip) {
+        for (int c=0; c<crowdBatches.length; c++) {
+            if (crowdBatches[c] == null) crowdBatches[c] = new Path2D.Float(Path2D.WIND_NON_ZERO, 1024);
+            crowdBatches[c].reset();
+        }
+        for (int sq=0; sq<=finalSquare; sq++) {
+            int i = engine.firstOn(sq);
+            if (i < 0) continue;
+            Point center = squarePoint(sq);
+            if (!clip.intersects(pawnBounds(center))) continue;
+            for (int k=0; i>=0; i=engine.nextOn(i)) {
+                if (animator.point(i) != null) continue;   // dessiné à part, en mouvement
+                int x = center.x + (k % 5 - 2) * CROWD_PAWN - 2;
+                int y = center.y + (k / 5 % 5 - 2) * CROWD_PAWN - 2;
+                k++;
+                crowdBatches[GameEngine.colorSlot(i)].append(
+                        new java.awt.geom.Ellipse2D.Float(x, y, CROWD_PAWN-1, CROWD_PAWN-1), false);
+            }
+        }
+        for (int c=0; c<crowdBatches.length; c++) {
+            g.setColor(c < GameEngine.PAWN_COLORS.length ? GameEngine.PAWN_COLORS[c]
+                    : GameEngine.CROWD_PALETTE[c - GameEngine.PAWN_COLORS.length]);
+            g.fill(crowdBatches[c]);
+        }
+
+        // pions en mouvement et joueur courant, avec leur nom
+        for (int i=0; i<players.size(); i++) {
+            Point pt = animator.point(i);
+            if (pt == null && i != currentPlayer) continue;
+            if (pt == null) pt = pawnPoint(i);
+            if (!clip.intersects(pawnBounds(pt))) continue;
+            g.setColor(players.get(i).color);
+            g.fillOval(pt.x-6, pt.y-6, 12, 12);
+            g.setColor(Color.BLACK);
+            g.drawOval(pt.x-6, pt.y-6, 12, 12);
+            g.drawString(players.get(i).name, pt.x-10, pt.y-14);
+        }
+    }
+
+    private void paintScoreLayer(Graphics2D g) {
+        g.setColor(Color.WHITE);
+        g.fillRect(SCORE_BOX.x, SCORE_BOX.y, SCORE_BOX.width, SCORE_BOX.height);
+
+        g.setColor(Color.BLACK);
+        g.drawRect(SCORE_BOX.x, SCORE_BOX.y, SCORE_BOX.width, SCORE_BOX.height);
+        g.drawString("Scores:", 20,190);
+
+        int y = 210;
+        WinOdds.Odds o = shownOdds;
+        for (int i : scoreLines()) {
+            g.drawString(
+                players.get(i).name + " : " + engine.score[i] +
+                " (case " + engine.pos[i] + ")", 20, y
+            );
+            if (o != null) {
+                g.setColor(Color.GRAY);
+                g.drawString(String.format("  gagne %.0f%%  ~%.0f coups", o.win[i] * 100, o.turns[i]), 20, y + 15);
+                g.setColor(Color.BLACK);
+                y += 15;
+            }
+            y += 20;
+        }
+    }
+
+    // tous les joueurs, ou en mode foule les 10 meilleurs scores puis le joueur courant
+    private int[] scoreLines() {
+        int[] score = engine.score;
+        if (!engine.crowd) {
+            int[] all = new int[players.size()];
+            for (int i=0; i<all.length; i++) all[i] = i;
+            return all;
+        }
+        int[] best = new int[11];
+        int n = 0;
+        for (int i=0; i<score.length; i++) {
+            if (n == 10 && score[i] <= score[best[9]]) continue;
+            int at = n < 10 ? n++ : 9;   // place libre, ou le dixième est évincé
+            for (; at > 0 && score[best[at-1]] < score[i]; at--) best[at] = best[at-1];
+            best[at] = i;
+        }
+        boolean listed = false;
+        for (int k=0; k<n; k++) listed |= best[k] == currentPlayer;
+        if (!listed) best[n++] = currentPlayer;
+        return Arrays.copyOf(best, n);
+    }
+}
@@ -0,0 +1,30 @@
+package src;
+
+/* ---------- GameRecord: une partie terminée ---------- */
+class GameRecord {
+    long timestamp;     // millisecondes epoch
+    String level;
+    int nPlayers;
+    boolean includeAI;
+    boolean aiWon;
+    int turns;
+    int score;
+    String initials;
+
+    GameRecord(long timestamp, String level, int nPlayers, boolean includeAI,
+               boolean aiWon, int turns, int score, String initials) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.nPlayers = nPlayers;
+        this.includeAI = includeAI;
+        this.aiWon = aiWon;
+        this.turns = turns;
+        this.score = score;
+        this.initials = initials;
+    }
+
+    public String toString() {
+        return String.format("%tF %<tT  %-9s %dJ%s  %-3s %6d pts  %4d coups",
+                timestamp, level, nPlayers, includeAI ? "+AI" : "   ", initials, score, turns);
+    }
+}
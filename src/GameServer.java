@@ -0,0 +1,304 @@
+package src;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serveur de parties: des milliers de tables en mémoire dans une seule JVM.
+ *
+ * Protocole texte sur localhost, une commande par ligne, une réponse par ligne:
+ *
+ *   NEW niveau joueurs ia [graine]   -> OK id
+ *   ROLL id                          -> TURN joueur dé départ case effet points prise suivant|WIN
+ *   STATE id                         -> STATE courant coups case:score ...
+ *   QUIT id                          -> OK
+ *   STATS                            -> STATS tables parties coups (totaux)
+ *   BYE                              ferme la connexion
+ *
+ * Chaque connexion a son propre fil virtuel (Java 21; pool de fils
+ * classiques sinon), et chaque table a son verrou: deux connexions peuvent
+ * jouer la même table, les coups restent joués un par un. Les tables
+ * créées par une connexion sont libérées à sa fermeture, même sans QUIT
+ * ni victoire (client tué, réseau coupé). Toutes les
+ * secondes, le serveur affiche parties/s, coups/s et la latence p99 d'un coup.
+ *
+ * Pour lancer:
+ *   java src.GameServer [port]
+ *   java src.GameServer load [connexions] [secondes] [port]   générateur de charge
+ */
+class GameServer {
+    static final int PORT = 7447;
+    static final int STRIPES = 16;
+
+    /* ---------- Session: une table, mêmes règles que GamePanel.doRoll ---------- */
+    static class Session {
+        final long id;
+        final GameEngine engine;
+        final DiceRng rng;
+        final ReentrantLock lock = new ReentrantLock();   // pas de synchronized: ne bloque pas le fil porteur
+
+        Session(long id, GameConfig cfg, long seed) {
+            this.id = id;
+            this.engine = new GameEngine(cfg);
+            this.rng = new DiceRng(seed);
+        }
+    }
+
+    final ConcurrentHashMap<Long,Session> sessions = new ConcurrentHashMap<>();
+    final AtomicLong nextId = new AtomicLong(1);
+    final LongAdder created = new LongAdder(), turns = new LongAdder();
+    final Histogram[] latency = new Histogram[STRIPES];   // µs, une bande par groupe de fils
+    final ExecutorService connections = perTaskExecutor();
+    ServerSocket socket;
+
+    GameServer() {
+        for (int i=0; i<STRIPES; i++) latency[i] = new Histogram(0, 1, 20_000);
+    }
+
+    // un fil virtuel par tâche si la JVM le permet (Java 21), sinon un pool de fils classiques
+    static ExecutorService perTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch(ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "session");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    void start(int port) throws IOException {
+        socket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (!socket.isClosed()) {
+                    Socket s = socket.accept();
+                    s.setTcpNoDelay(true);
+                    connections.submit(() -> serve(s));
+                }
+            } catch(IOException e) {
+                // socket fermé: arrêt du serveur
+            }
+        }, "accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    void stop() throws IOException {
+        socket.close();
+        connections.shutdownNow();
+    }
+
+    private void serve(Socket s) {
+        Histogram lat = latency[(int) (Thread.currentThread().getId() % STRIPES)];
+        Set<Long> owned = new HashSet<>();   // tables créées par cette connexion, encore ouvertes
+        try (s;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8)))) {
+            StringBuilder sb = new StringBuilder(64);
+            for (String line; (line = in.readLine()) != null; ) {
+                long t0 = System.nanoTime();
+                sb.setLength(0);
+                boolean roll = handle(line, sb, owned);
+                if (sb.length() == 0) break;
+                out.append(sb).append('\n').flush();
+                if (roll) {
+                    long us = (System.nanoTime() - t0) / 1000;
+                    synchronized (lat) { lat.add(us); }
+                }
+            }
+        } catch(IOException e) {
+            // client parti
+        } finally {
+            for (Long id : owned) sessions.remove(id);
+        }
+    }
+
+    // exécute une commande; réponse dans sb (vide pour BYE); true si un coup a été joué.
+    // owned suit les tables créées par la connexion
+    boolean handle(String line, StringBuilder sb, Set<Long> owned) {
+        String[] a = line.trim().split("\\s+");
+        try {
+            switch (a[0].toUpperCase()) {
+                case "NEW": {
+                    String level = a[1].toUpperCase();
+                    int n = Integer.parseInt(a[2]);
+                    boolean ai = Boolean.parseBoolean(a[3]);
+                    if (!level.equals("FACILE") && !level.equals("DIFFICILE") || n < 1 || n + (ai ? 1 : 0) > 4) {
+                        sb.append("ERR configuration");
+                        return false;
+                    }
+                    long seed = a.length > 4 ? Long.parseLong(a[4]) : ThreadLocalRandom.current().nextLong();
+                    Session session = new Session(nextId.getAndIncrement(), new GameConfig(level, n, ai), seed);
+                    sessions.put(session.id, session);
+                    owned.add(session.id);
+                    created.increment();
+                    sb.append("OK ").append(session.id);
+                    return false;
+                }
+                case "ROLL": {
+                    Session session = sessions.get(Long.parseLong(a[1]));
+                    if (session == null) { sb.append("ERR table inconnue"); return false; }
+                    session.lock.lock();
+                    try {
+                        if (session.engine.isOver()) { sb.append("ERR partie finie"); return false; }
+                        GameEngine e = session.engine;
+                        int code = e.roll(session.rng);
+                        sb.append("TURN ").append(e.lastPlayer + 1).append(' ').append(e.lastDie)
+                          .append(' ').append(e.lastFrom).append(' ').append(e.lastTarget).append(' ').append(e.lastEffect)
+                          .append(' ').append(e.lastPoints).append(' ')
+                          .append(e.lastOpponent + 1).append(' ');
+                        if ((code & GameEngine.WON) != 0) {
+                            sb.append("WIN");
+                            sessions.remove(session.id);   // table libérée dès la victoire
+                            owned.remove(session.id);
+                        } else {
+                            sb.append(session.engine.currentPlayer + 1);
+                        }
+                    } finally {
+                        session.lock.unlock();
+                    }
+                    turns.increment();
+                    return true;
+                }
+                case "STATE": {
+                    Session session = sessions.get(Long.parseLong(a[1]));
+                    if (session == null) { sb.append("ERR table inconnue"); return false; }
+                    session.lock.lock();
+                    try {
+                        GameEngine e = session.engine;
+                        sb.append("STATE ").append(e.currentPlayer + 1).append(' ').append(e.turns);
+                        for (int i=0; i<e.pos.length; i++) sb.append(' ').append(e.pos[i]).append(':').append(e.score[i]);
+                    } finally {
+                        session.lock.unlock();
+                    }
+                    return false;
+                }
+                case "QUIT": {
+                    long id = Long.parseLong(a[1]);
+                    sessions.remove(id);
+                    owned.remove(id);
+                    sb.append("OK");
+                    return false;
+                }
+                case "STATS":
+                    sb.append("STATS ").append(sessions.size()).append(' ').append(created.sum())
+                      .append(' ').append(turns.sum());
+                    return false;
+                case "BYE":
+                    return false;
+                default:
+                    sb.append("ERR commande inconnue");
+                    return false;
+            }
+        } catch(RuntimeException e) {
+            sb.setLength(0);
+            sb.append("ERR ").append(line);
+            return false;
+        }
+    }
+
+    // latence des coups depuis le dernier relevé, toutes bandes confondues
+    Histogram drainLatency() {
+        Histogram all = new Histogram(0, 1, 20_000);
+        for (Histogram h : latency) {
+            synchronized (h) {
+                all.merge(h);
+                h.clear();
+            }
+        }
+        return all;
+    }
+
+    void report(long secs) throws InterruptedException {
+        long lastCreated = 0, lastTurns = 0, t = System.nanoTime();
+        for (long i=0; secs <= 0 || i < secs; i++) {
+            Thread.sleep(1000);
+            long now = System.nanoTime();
+            double dt = (now - t) / 1e9;
+            long c = created.sum(), tr = turns.sum();
+            Histogram lat = drainLatency();
+            System.out.printf("tables: %,d  parties/s: %,.0f  coups/s: %,.0f  latence coup p50 %d µs  p99 %d µs%n",
+                    sessions.size(), (c - lastCreated) / dt, (tr - lastTurns) / dt,
+                    lat.percentile(0.5), lat.percentile(0.99));
+            lastCreated = c;
+            lastTurns = tr;
+            t = now;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("load")) {
+            int conns = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+            long secs = args.length > 2 ? Long.parseLong(args[2]) : 10;
+            int port = args.length > 3 ? Integer.parseInt(args[3]) : PORT;
+            LoadClient.run(conns, secs, port);
+            return;
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : PORT;
+        GameServer server = new GameServer();
+        server.start(port);
+        System.out.println("Serveur sur 127.0.0.1:" + port);
+        server.report(0);
+    }
+}
+
+/* ---------- LoadClient: générateur de charge, chaque connexion enchaîne des parties ---------- */
+class LoadClient {
+    static void run(int conns, long secs, int port) throws Exception {
+        ExecutorService pool = GameServer.perTaskExecutor();
+        LongAdder games = new LongAdder(), turns = new LongAdder(), errors = new LongAdder();
+        Histogram[] rtt = new Histogram[conns];
+        long t0 = System.nanoTime(), deadline = t0 + secs * 1_000_000_000L;
+        List<Future<?>> running = new ArrayList<>();
+        for (int c=0; c<conns; c++) {
+            Histogram h = rtt[c] = new Histogram(0, 10, 2_000);
+            running.add(pool.submit(() -> {
+                try (Socket s = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                    s.setTcpNoDelay(true);
+                    BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                    PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8)));
+                    while (System.nanoTime() < deadline) {
+                        out.print("NEW DIFFICILE 2 true\n");
+                        out.flush();
+                        String id = in.readLine().substring(3);
+                        for (;;) {
+                            long sent = System.nanoTime();
+                            out.print("ROLL " + id + "\n");
+                            out.flush();
+                            String r = in.readLine();
+                            h.add((System.nanoTime() - sent) / 1000);
+                            turns.increment();
+                            if (r.startsWith("ERR")) { errors.increment(); break; }
+                            if (r.endsWith("WIN")) break;
+                        }
+                        games.increment();
+                    }
+                    out.print("BYE\n");
+                    out.flush();
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> f : running) {
+            try {
+                f.get();
+            } catch(ExecutionException e) {
+                errors.increment();
+            }
+        }
+        pool.shutdown();
+        double elapsed = (System.nanoTime() - t0) / 1e9;
+        Histogram all = new Histogram(0, 10, 2_000);
+        for (Histogram h : rtt) all.merge(h);
+        System.out.printf("%d connexions, %.1f s: %,d parties (%,.0f/s), %,d coups (%,.0f/s), %d erreurs%n",
+                conns, elapsed, games.sum(), games.sum() / elapsed, turns.sum(), turns.sum() / elapsed, errors.sum());
+        System.out.println("Aller-retour d'un coup (µs): " + all.summary());
+    }
+}
@@ -0,0 +1,190 @@
+package src;
+import java.awt.Color;
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sauvegarde d'une partie en cours.
+ *
+ * L'état complet (configuration, joueurs, joueur courant, état du dé et
+ * journal) est encodé sur l'EDT en quelques microsecondes, puis écrit en
+ * tâche de fond dans un fichier temporaire renommé atomiquement.
+ *
+ *   "OIEP" | version | niveau | joueurs | drapeaux | joueur courant | coups
+ *   | prises de place | effets de cases (depuis la version 2) | état du dé (long) | n pions × (nom UTF, humain, couleur RGB, case, score)
+ *   | longueur + journal
+ */
+class GameSnapshot {
+    static final int MAGIC = 0x4F494550;   // "OIEP"
+    static final int VERSION = 2;
+    static final Path SAVE_FILE = Paths.get("savegame.dat");
+
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "autosave");
+        t.setDaemon(true);
+        return t;
+    });
+
+    final GameConfig cfg;
+    final GameEngine engine;
+    final DiceRng rng;
+    final GameJournal journal;
+
+    GameSnapshot(GameConfig cfg, GameEngine engine, DiceRng rng, GameJournal journal) {
+        this.cfg = cfg;
+        this.engine = engine;
+        this.rng = rng;
+        this.journal = journal;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            GameJournal.writeLevel(out, cfg.level);
+            GameJournal.writeCount(out, cfg.nPlayers);
+            out.writeByte(cfg.flags());
+            GameJournal.writeCount(out, engine.currentPlayer);
+            out.writeInt(engine.turns);
+            out.writeInt(engine.swaps);
+            out.writeInt(engine.specialHits);
+            out.writeLong(rng.state);
+            GameJournal.writeCount(out, engine.players.size());
+            for (int i=0; i<engine.players.size(); i++) {
+                Player p = engine.players.get(i);
+                out.writeUTF(p.name);
+                out.writeBoolean(p.human);
+                out.writeInt(p.color.getRGB());
+                out.writeInt(engine.pos[i]);
+                out.writeInt(engine.score[i]);
+            }
+            byte[] j = journal.toBytes();
+            out.writeInt(j.length);
+            out.write(j);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static GameSnapshot decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) throw new IOException("pas une sauvegarde de partie");
+        int version = in.readUnsignedByte();
+        if (version > VERSION) throw new IOException("version de sauvegarde inconnue");
+        GameConfig cfg = GameConfig.withFlags(GameJournal.readLevel(in),
+                GameJournal.readCount(in), in.readUnsignedByte());
+        int current = GameJournal.readCount(in);
+        int turns = in.readInt();
+        int swaps = 0, specialHits = 0;   // version 1: compteurs non sauvegardés
+        if (version >= 2) {
+            swaps = in.readInt();
+            specialHits = in.readInt();
+        }
+        DiceRng rng = new DiceRng(in.readLong());
+
+        int n = GameJournal.readCount(in);
+        List<Player> players = new ArrayList<>(n);
+        int[] pos = new int[n], score = new int[n];
+        for (int i=0; i<n; i++) {
+            Player p = new Player(in.readUTF(), null, true);
+            p.human = in.readBoolean();
+            p.color = new Color(in.readInt(), true);
+            pos[i] = in.readInt();
+            score[i] = in.readInt();
+            players.add(p);
+        }
+        GameEngine engine = new GameEngine(Board.forLevel(cfg.level), players);
+        for (int i=0; i<n; i++) engine.set(i, pos[i], score[i]);
+        engine.reindex();
+        engine.currentPlayer = current;
+        engine.turns = turns;
+        engine.swaps = swaps;
+        engine.specialHits = specialHits;
+
+        byte[] j = new byte[in.readInt()];
+        in.readFully(j);
+        return new GameSnapshot(cfg, engine, rng, GameJournal.resume(new JournalReader(j)));
+    }
+
+    // connu en mémoire pour que le menu n'ait pas à interroger le disque
+    private static volatile boolean present = Files.exists(SAVE_FILE);
+
+    static boolean exists() { return present; }
+
+    // dernière sauvegarde pas encore écrite: les suivantes la remplacent. Une
+    // suppression ouvre une nouvelle fenêtre, pour qu'une sauvegarde postérieure
+    // ne parte pas avec une écriture placée avant la suppression.
+    private static AtomicReference<byte[]> queued = new AtomicReference<>();
+    private static CompletableFuture<Void> queuedWrite = CompletableFuture.completedFuture(null);
+
+    /**
+     * Encode maintenant (sur l'EDT), écrit en tâche de fond. Si une écriture
+     * attend encore son tour, elle écrira cet état à la place: une seule
+     * écriture pour plusieurs sauvegardes rapprochées.
+     */
+    static synchronized CompletableFuture<Void> saveAsync(byte[] data) {
+        present = true;
+        AtomicReference<byte[]> slot = queued;
+        if (slot.getAndSet(data) != null) return queuedWrite;
+        return queuedWrite = DiskIo.write(writer, () -> {
+            write(slot.getAndSet(null));
+            return null;
+        });
+    }
+
+    CompletableFuture<Void> saveAsync() {
+        return saveAsync(encode());
+    }
+
+    private static void write(byte[] data) throws IOException {
+        Path tmp = SAVE_FILE.resolveSibling(SAVE_FILE.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(java.nio.ByteBuffer.wrap(data));
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, SAVE_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(AtomicMoveNotSupportedException e) {
+            Files.move(tmp, SAVE_FILE, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static CompletableFuture<GameSnapshot> loadAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return decode(Files.readAllBytes(SAVE_FILE));
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+    }
+
+    /** Supprime la sauvegarde; si la partie n'était pas finie, son journal est clos en abandon. */
+    static synchronized CompletableFuture<Void> discardAsync(boolean abandoned) {
+        present = false;
+        queued = new AtomicReference<>();   // l'écriture en attente reste avant la suppression
+        return DiskIo.write(writer, () -> {
+            if (!Files.exists(SAVE_FILE)) return null;
+            if (abandoned) {
+                try {
+                    GameSnapshot s = decode(Files.readAllBytes(SAVE_FILE));
+                    s.journal.abandon();
+                    s.journal.saveAsync(GamePanel.JOURNAL_DIR);
+                } catch(IOException e) {
+                    // sauvegarde illisible: rien à journaliser
+                }
+            }
+            Files.deleteIfExists(SAVE_FILE);
+            return null;
+        });
+    }
+}
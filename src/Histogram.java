@@ -0,0 +1,77 @@
+package src;
+
+/* ---------- Histogram: distribution d'entiers à classes fixes ---------- */
+class Histogram {
+    final long min;
+    final long width;
+    final long[] counts;
+    long under, over;
+    long count;
+    double sum, sumSq;
+    long lo = Long.MAX_VALUE, hi = Long.MIN_VALUE;
+
+    Histogram(long min, long width, int buckets) {
+        this.min = min;
+        this.width = width;
+        this.counts = new long[buckets];
+    }
+
+    void add(long v) {
+        long b = Math.floorDiv(v - min, width);
+        if (b < 0) under++;
+        else if (b >= counts.length) over++;
+        else counts[(int) b]++;
+        count++;
+        sum += v;
+        sumSq += (double) v * v;
+        if (v < lo) lo = v;
+        if (v > hi) hi = v;
+    }
+
+    void merge(Histogram o) {
+        for (int i=0;i<counts.length;i++) counts[i] += o.counts[i];
+        under += o.under;
+        over += o.over;
+        count += o.count;
+        sum += o.sum;
+        sumSq += o.sumSq;
+        lo = Math.min(lo, o.lo);
+        hi = Math.max(hi, o.hi);
+    }
+
+    void clear() {
+        java.util.Arrays.fill(counts, 0);
+        under = over = count = 0;
+        sum = sumSq = 0;
+        lo = Long.MAX_VALUE;
+        hi = Long.MIN_VALUE;
+    }
+
+    double mean() { return count == 0 ? 0 : sum / count; }
+
+    double stddev() {
+        if (count < 2) return 0;
+        double m = mean();
+        return Math.sqrt(Math.max(0, sumSq / count - m * m));
+    }
+
+    // borne haute de la classe contenant le quantile p (0..1)
+    long percentile(double p) {
+        if (count == 0) return 0;
+        long rank = (long) Math.ceil(p * count);
+        if (rank < 1) rank = 1;
+        long seen = under;
+        if (seen >= rank) return lo;
+        for (int i=0;i<counts.length;i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(hi, min + (i + 1) * width - 1);
+        }
+        return hi;
+    }
+
+    String summary() {
+        return String.format("moy %.2f  écart-type %.2f  min %d  p50 %d  p90 %d  p99 %d  max %d",
+                mean(), stddev(), count == 0 ? 0 : lo, percentile(0.5), percentile(0.9),
+                percentile(0.99), count == 0 ? 0 : hi);
+    }
+}
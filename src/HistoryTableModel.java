@@ -0,0 +1,81 @@
+package src;
+import java.util.*;
+
+/* ---------- HistoryTableModel: parties de l'historique, lues par pages à la demande ---------- */
+class HistoryTableModel extends javax.swing.table.AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    static final int PAGE = 256;    // lignes par lecture
+    static final int PAGES = 64;    // pages gardées en mémoire
+    static final String[] COLUMNS = {"Date", "Niveau", "Joueurs", "AI", "Gagnant", "Score", "Coups"};
+    static final java.time.format.DateTimeFormatter DATE =
+            java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(java.time.ZoneId.systemDefault());
+
+    ScoreHistory history;
+    long rows;    // nombre de parties au moment de l'ouverture de l'écran
+    private final LinkedHashMap<Integer,GameRecord[]> pages = new LinkedHashMap<Integer,GameRecord[]>(PAGES, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer,GameRecord[]> e) { return size() > PAGES; }
+    };
+    private final Set<Integer> loading = new HashSet<>();
+
+    void reset(ScoreHistory h, long total) {
+        history = h;
+        rows = total;
+        pages.clear();
+        loading.clear();
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() { return (int) Math.min(rows, Integer.MAX_VALUE); }
+
+    @Override
+    public int getColumnCount() { return COLUMNS.length; }
+
+    @Override
+    public String getColumnName(int c) { return COLUMNS[c]; }
+
+    @Override
+    public Class<?> getColumnClass(int c) { return c >= 5 ? Integer.class : String.class; }
+
+    @Override
+    public Object getValueAt(int row, int col) {
+        GameRecord r = record(row);
+        if (r == null) return col == 0 ? "..." : null;
+        switch (col) {
+            case 0:  return DATE.format(java.time.Instant.ofEpochMilli(r.timestamp));
+            case 1:  return r.level;
+            case 2:  return r.nPlayers == 255 ? "foule" : Integer.toString(r.nPlayers);
+            case 3:  return !r.includeAI ? "" : r.aiWon ? "gagnante" : "battue";
+            case 4:  return r.initials;
+            case 5:  return r.score;
+            default: return r.turns;
+        }
+    }
+
+    // page en mémoire, sinon lecture demandée en tâche de fond et ligne vide en attendant
+    private GameRecord record(int row) {
+        int p = row / PAGE;
+        GameRecord[] page = pages.get(p);
+        if (page == null) {
+            request(p);
+            return null;
+        }
+        int i = row % PAGE;
+        return i < page.length ? page[i] : null;
+    }
+
+    private void request(int p) {
+        if (history == null || !loading.add(p)) return;
+        ScoreHistory h = history;
+        long total = rows;
+        DiskIo.read(() -> h.recent(total, (long) p * PAGE, PAGE)).thenAcceptAsync(page -> {
+            if (h != history || total != rows) return;   // écran rouvert entre-temps
+            loading.remove(p);
+            pages.put(p, page);
+            if (page.length > 0) fireTableRowsUpdated(p * PAGE, p * PAGE + page.length - 1);
+        }, DiskIo.EDT);
+    }
+}
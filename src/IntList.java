@@ -0,0 +1,15 @@
+package src;
+import java.util.*;
+
+/* ---------- IntList: liste d'int sans boxing ---------- */
+class IntList {
+    int[] a = new int[16];
+    int size;
+
+    void add(int v) {
+        if (size == a.length) a = Arrays.copyOf(a, size * 2);
+        a[size++] = v;
+    }
+
+    int get(int i) { return a[i]; }
+}
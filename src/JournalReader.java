@@ -0,0 +1,79 @@
+package src;
+import java.io.*;
+
+/* ---------- JournalReader: relecture d'un journal ---------- */
+class JournalReader {
+    final GameConfig cfg;
+    final long seed;
+    final IntList dice = new IntList();    // dés joués
+    final IntList drawn = new IntList();   // tous les dés tirés, négatifs si relancés
+    int winner = -1;
+    int winnerScore;
+    boolean abandoned;
+
+    JournalReader(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != GameJournal.MAGIC) throw new IOException("pas un journal de partie");
+        if (in.readUnsignedByte() > GameJournal.VERSION) throw new IOException("version de journal inconnue");
+        String level = GameJournal.readLevel(in);
+        int n = GameJournal.readCount(in);
+        cfg = GameConfig.withFlags(level, n, in.readUnsignedByte());
+        seed = in.readLong();
+
+        for (int tag; (tag = varint(in)) != GameJournal.END; ) {
+            if (tag >= GameJournal.PAIR && tag < GameJournal.PAIR + 36) {
+                drawn((tag - GameJournal.PAIR) / 6 + 1);
+                drawn((tag - GameJournal.PAIR) % 6 + 1);
+            } else if (tag >= 1 && tag <= 6) {
+                drawn(tag);
+            } else if (tag == GameJournal.REROLL && dice.size > 0) {
+                dice.size--;
+                drawn.a[drawn.size-1] = -drawn.a[drawn.size-1];
+            } else if (tag == GameJournal.WIN) {
+                winner = varint(in);
+                int z = varint(in);
+                winnerScore = (z >>> 1) ^ -(z & 1);
+            } else if (tag == GameJournal.ABANDON) {
+                abandoned = true;
+            } else {
+                throw new IOException("événement inconnu: " + tag);
+            }
+        }
+    }
+
+    private void drawn(int d) {
+        drawn.add(d);
+        dice.add(d);
+    }
+
+    private static int varint(DataInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0) return GameJournal.END;    // journal tronqué: on s'arrête là
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+    }
+
+    /** Rejoue sans rendu les turn premiers coups (tous si turn < 0). */
+    GameEngine replay(int turn) {
+        GameEngine e = new GameEngine(cfg);
+        int n = turn < 0 ? dice.size : Math.min(turn, dice.size);
+        for (int i=0; i<n && !e.isOver(); i++) e.playTurn(dice.get(i));
+        return e;
+    }
+
+    // vérifie que les dés viennent bien de la graine et que la victoire enregistrée est retrouvée
+    String audit() {
+        DiceRng rng = new DiceRng(seed);
+        for (int i=0; i<drawn.size; i++)
+            if (rng.rollDie() != Math.abs(drawn.get(i))) return "dé " + (i+1) + " ne correspond pas à la graine";
+        GameEngine e = replay(-1);
+        if (winner < 0) return e.isOver() ? "victoire non enregistrée" : null;
+        if (!e.isOver()) return "partie non terminée au rejeu";
+        if (e.winner != winner) return "gagnant " + e.winner().name + " au rejeu, joueur " + (winner+1) + " enregistré";
+        if (e.score[e.winner] != winnerScore) return "score " + e.score[e.winner] + " au rejeu, " + winnerScore + " enregistré";
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package src;
+
+/* ---------- LevelStats: agrégats d'un niveau, tenus à jour partie par partie ---------- */
+class LevelStats {
+    String level;   // nom affiché, renseigné sur les copies de ScoreHistory.stats()
+    long games, aiGames, aiWins;
+    long scoreSum, turnsSum;
+    final Histogram scores = new Histogram(-2000, 10, 3000);
+
+    void add(int score, int turns, int flags) {
+        games++;
+        scoreSum += score;
+        turnsSum += turns;
+        scores.add(score);
+        if ((flags & 1) != 0) {
+            aiGames++;
+            if ((flags & 2) != 0) aiWins++;
+        }
+    }
+
+    LevelStats copy() {
+        LevelStats c = new LevelStats();
+        c.games = games; c.aiGames = aiGames; c.aiWins = aiWins;
+        c.scoreSum = scoreSum; c.turnsSum = turnsSum;
+        c.scores.merge(scores);
+        return c;
+    }
+
+    double meanScore() { return games == 0 ? 0 : scoreSum / (double) games; }
+    double meanTurns() { return games == 0 ? 0 : turnsSum / (double) games; }
+    double aiWinRate() { return aiGames == 0 ? 0 : aiWins / (double) aiGames; }
+}
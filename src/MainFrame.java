@@ -0,0 +1,122 @@
+package src;
+import javax.swing.*;
+import java.awt.*;
+import java.io.*;
+import java.util.concurrent.*;
+
+/* ---------- MainFrame: gère navigation entre panels ---------- */
+class MainFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
+
+    CardLayout cards = new CardLayout();
+    JPanel root = new JPanel(cards);
+
+    MenuPanel menuPanel;
+    NewGamePanel newGamePanel;
+    GamePanel gamePanel;     // construits à la première visite
+    StatsPanel statsPanel;
+
+    MainFrame() {
+        setTitle("Jeu de l'Oie");
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);   // on quitte après la sauvegarde, voir plus bas
+        setSize(900, 900);
+        setMinimumSize(new Dimension(640, 560));
+        setLocationRelativeTo(null);
+
+        menuPanel = new MenuPanel(this);
+        newGamePanel = new NewGamePanel(this);
+
+        root.add(menuPanel, "MENU");
+        root.add(newGamePanel, "NEWGAME");
+
+        add(root);
+
+        // fermeture de la fenêtre: elle disparaît tout de suite, la partie en cours est
+        // sauvegardée en tâche de fond (2 s au plus) et on quitte ensuite, sans bloquer l'EDT
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                CompletableFuture<?> saving = gamePanel == null ? null : gamePanel.suspendGame();
+                setVisible(false);
+                if (saving == null) saving = CompletableFuture.completedFuture(null);
+                saving.orTimeout(2, TimeUnit.SECONDS).whenComplete((v, ex) -> {
+                    if (ex != null) ex.printStackTrace();
+                    System.exit(0);
+                });
+            }
+        });
+
+        showMenu();
+        setVisible(true);
+        warmUp();
+    }
+
+    // pendant que le menu est affiché: images, plateaux, classement et classes des écrans de jeu
+    private static void warmUp() {
+        CompletableFuture<?> images = AssetCache.shared().preloadAsync();
+        CompletableFuture<?> rest = DiskIo.read(() -> {
+            ScoreManager scores = ScoreManager.shared();   // lecture lancée sur son propre fil
+            try {
+                ScoreHistory.shared();   // index et agrégats de l'écran des statistiques
+            } catch(UncheckedIOException e) {
+                // signalé sur l'écran des statistiques
+            }
+            for (String level : ScoreHistory.LEVELS) {
+                try {
+                    BoardLoader.load(level);
+                } catch(UncheckedIOException e) {
+                    // signalé au lancement d'une partie sur ce niveau
+                }
+            }
+            for (String c : new String[]{"src.GamePanel", "src.PawnAnimator", "src.StatsPanel", "src.TurnPlanner"})
+                Class.forName(c);
+            return scores.ready();
+        }).thenCompose(f -> f);
+        CompletableFuture.allOf(images, rest).whenComplete((v, ex) -> StartupTimer.mark("préchargement"));
+    }
+
+    GamePanel gamePanel(){
+        if (gamePanel == null) {
+            gamePanel = new GamePanel(this);
+            root.add(gamePanel, "GAME");
+        }
+        return gamePanel;
+    }
+
+    StatsPanel statsPanel(){
+        if (statsPanel == null) {
+            statsPanel = new StatsPanel(this);
+            root.add(statsPanel, "STATS");
+        }
+        return statsPanel;
+    }
+
+    // --startup-timing: chaque écran s'ouvre dès que le précédent est utilisable
+    void startupTour(){
+        StartupTimer.then("menu", this::showNewGame);
+        StartupTimer.then("nouvelle partie", this::showStats);
+        StartupTimer.then("statistiques", () -> {
+            gamePanel().loadGame(new GameConfig("FACILE", 2, false));   // sans toucher à la sauvegarde
+            cards.show(root, "GAME");
+        });
+        StartupTimer.then("jeu", () -> StartupTimer.then("préchargement", StartupTimer::finish));
+    }
+
+    void showMenu(){ menuPanel.refresh(); cards.show(root, "MENU"); }
+
+    void resumeGame(){
+        GameSnapshot.loadAsync()
+            .thenCompose(s -> GamePanel.loadBoardImage(s.engine).thenApply(img -> s))
+            .whenCompleteAsync((s, ex) -> {
+                if (s == null) {
+                    JOptionPane.showMessageDialog(this, "Impossible de reprendre la partie sauvegardée.");
+                    return;
+                }
+                gamePanel().resumeGame(s);
+                cards.show(root, "GAME");
+            }, DiskIo.EDT);
+    }
+    void showNewGame(){ cards.show(root, "NEWGAME"); }
+    void showGame(GameConfig cfg){ gamePanel().startNewGame(cfg); cards.show(root, "GAME"); }
+    void showStats(){ statsPanel().loadScores(); cards.show(root,"STATS"); }
+}
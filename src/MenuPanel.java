@@ -0,0 +1,48 @@
+package src;
+import javax.swing.*;
+import java.awt.*;
+
+/* ---------- MenuPanel ---------- */
+class MenuPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    MainFrame parent;
+    JButton resume;
+
+    MenuPanel(MainFrame p){
+        parent = p;
+        setLayout(new GridBagLayout());
+        GridBagConstraints c = new GridBagConstraints();
+        c.insets = new Insets(15,15,15,15);
+        JLabel title = new JLabel("Jeu de l'Oie");
+        title.setFont(new Font("SansSerif", Font.BOLD, 36));
+        c.gridx=0; c.gridy=0; add(title,c);
+
+        resume = new JButton("Reprendre la partie");
+        resume.addActionListener(e -> parent.resumeGame());
+        c.gridy=1; add(resume,c);
+
+        JButton newGame = new JButton("Nouvelle partie");
+        newGame.addActionListener(e -> parent.showNewGame());
+        c.gridy=2; add(newGame,c);
+
+        JButton stats = new JButton("Statistique du jeu");
+        stats.addActionListener(e -> parent.showStats());
+        c.gridy=3; add(stats,c);
+
+        JButton about = new JButton("A propos du jeu");
+        about.addActionListener(e ->
+            JOptionPane.showMessageDialog(this,
+                "Jeu de l'Oie - Prototype\nDéveloppé en Java Swing\nFonctionnalités: plusieurs niveaux, scores, IA simple.")
+        );
+        c.gridy=4; add(about,c);
+    }
+
+    void refresh(){ resume.setVisible(GameSnapshot.exists()); }
+
+    @Override
+    public void paint(Graphics g){
+        super.paint(g);
+        StartupTimer.mark("menu");
+    }
+}
@@ -0,0 +1,188 @@
+package src;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.Timer;
+import java.util.TimerTask;
+import javax.swing.SwingUtilities;
+import jdk.jfr.*;
+
+/**
+ * Mesures du jeu: événements JFR et compteurs de l'overlay (touche F3).
+ *
+ * Les événements ne coûtent presque rien hors enregistrement. Pour les voir:
+ *   java -XX:StartFlightRecording=filename=oie.jfr src.JeuDeLOie
+ *   jfr print --categories "Jeu de l'Oie" oie.jfr
+ *
+ * L'overlay montre sur la dernière seconde: la latence de l'EDT (un fil
+ * poste une tâche toutes les 50 ms et mesure son retard), les temps de
+ * rendu, les images de l'animation des pions (et celles perdues), le tas
+ * et la latence des lectures/écritures de fichiers.
+ */
+class Metrics {
+    static final long EDT_PROBE_MS = 50;
+
+    // fenêtres glissantes, vidées à chaque relevé de l'overlay
+    static final Histogram frames = new Histogram(0, 50, 2_000);   // µs
+    static final Histogram edtLag = new Histogram(0, 100, 5_000);  // µs
+    static final Histogram io = new Histogram(0, 100, 5_000);      // µs
+    static final Histogram anim = new Histogram(0, 100, 1_000);    // µs, une par pas de PawnAnimator
+    private static long animDropped;                               // gardé par anim
+    private static volatile boolean probing;
+
+    static void frame(long nanos) { add(frames, nanos / 1000); }
+
+    static void io(long nanos) { add(io, nanos / 1000); }
+
+    static void animFrame(long nanos) { add(anim, nanos / 1000); }
+
+    static void dropped(long steps) {
+        synchronized (anim) { animDropped += steps; }
+    }
+
+    /** Termine un événement de fichier des scores et compte sa latence. */
+    static void scoreIo(ScoreIoEvent ev, String op, Object file, int entries, long t0) {
+        io(System.nanoTime() - t0);
+        if (ev.shouldCommit()) {
+            ev.operation = op;
+            ev.file = String.valueOf(file);
+            ev.entries = entries;
+            ev.commit();
+        }
+    }
+
+    private static void add(Histogram h, long v) {
+        synchronized (h) { h.add(v); }
+    }
+
+    /** Démarre la sonde de l'EDT (une seule fois). */
+    static synchronized void startEdtProbe() {
+        if (probing) return;
+        probing = true;
+        new Timer("edt-probe", true).scheduleAtFixedRate(new TimerTask() {
+            @Override
+            public void run() {
+                long posted = System.nanoTime();
+                SwingUtilities.invokeLater(() -> {
+                    long lag = System.nanoTime() - posted;
+                    add(edtLag, lag / 1000);
+                    if (lag > 100_000_000L) {
+                        EdtStallEvent e = new EdtStallEvent();
+                        e.stallMillis = lag / 1_000_000;
+                        e.commit();
+                    }
+                });
+            }
+        }, EDT_PROBE_MS, EDT_PROBE_MS);
+    }
+
+    /** Lignes de l'overlay; vide les fenêtres. */
+    static String[] overlayLines() {
+        Runtime rt = Runtime.getRuntime();
+        long used = (rt.totalMemory() - rt.freeMemory()) >> 20;
+        return new String[]{
+            "EDT   " + window(edtLag),
+            "rendu " + window(frames),
+            "anim  " + animWindow(),
+            "E/S   " + window(io),
+            "tas   " + used + " / " + (rt.maxMemory() >> 20) + " Mo",
+        };
+    }
+
+    // p50, p99 et max de la fenêtre en ms, puis le nombre de mesures
+    private static String window(Histogram h) {
+        synchronized (h) {
+            String s = h.count == 0 ? "-" : String.format("p50 %.1f p99 %.1f max %.1f ms (%d)",
+                    h.percentile(0.5) / 1000.0, h.percentile(0.99) / 1000.0, h.hi / 1000.0, h.count);
+            h.clear();
+            return s;
+        }
+    }
+
+    private static String animWindow() {
+        synchronized (anim) {
+            long lost = animDropped;
+            animDropped = 0;
+            return window(anim) + (lost == 0 ? "" : ", " + lost + " perdues");
+        }
+    }
+
+    static void paintOverlay(Graphics2D g, Rectangle box, String[] lines) {
+        g.setColor(new Color(0, 0, 0, 180));
+        g.fillRect(box.x, box.y, box.width, box.height);
+        g.setColor(Color.GREEN);
+        g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        int y = box.y + 16;
+        for (String l : lines) {
+            g.drawString(l, box.x + 6, y);
+            y += 15;
+        }
+    }
+
+    /* ---------- Événements JFR ---------- */
+    @Name("oie.Turn")
+    @Label("Coup")
+    @Category("Jeu de l'Oie")
+    @Description("Résolution d'un coup (ou d'un tour complet en mode foule)")
+    static class TurnEvent extends Event {
+        @Label("Joueur") String player;
+        @Label("Dé") int die;
+        @Label("Départ") int from;
+        @Label("Arrivée") int target;
+        @Label("Prise de place") boolean swap;
+        @Label("Coups joués") int turns;
+    }
+
+    @Name("oie.ImageDecode")
+    @Label("Décodage d'image")
+    @Category("Jeu de l'Oie")
+    static class ImageDecodeEvent extends Event {
+        @Label("Image") String key;
+        @Label("Largeur") int width;
+        @Label("Hauteur") int height;
+    }
+
+    @Name("oie.Paint")
+    @Label("Rendu du plateau")
+    @Category("Jeu de l'Oie")
+    static class PaintEvent extends Event {
+        @Label("Zone") String clip;
+        @Label("Pions") int pawns;
+    }
+
+    @Name("oie.Animation")
+    @Label("Animation des pions")
+    @Category("Jeu de l'Oie")
+    static class AnimationEvent extends Event {
+        @Label("Images") int frames;
+        @Label("Images perdues") int dropped;
+        @Label("Pire image (µs)") long worstMicros;
+    }
+
+    @Name("oie.ScoreIO")
+    @Label("Lecture/écriture des scores")
+    @Category("Jeu de l'Oie")
+    static class ScoreIoEvent extends Event {
+        @Label("Opération") String operation;
+        @Label("Fichier") String file;
+        @Label("Entrées") int entries;
+    }
+
+    @Name("oie.AiPlan")
+    @Label("Recherche de l'AI")
+    @Category("Jeu de l'Oie")
+    static class AiPlanEvent extends Event {
+        @Label("Joueurs") int players;
+        @Label("Profondeur") int depth;
+        @Label("Nœuds") long nodes;
+        @Label("Nœuds par seconde") double nodesPerSecond;
+    }
+
+    @Name("oie.EdtStall")
+    @Label("EDT bloqué")
+    @Category("Jeu de l'Oie")
+    static class EdtStallEvent extends Event {
+        @Label("Durée (ms)") long stallMillis;
+    }
+}
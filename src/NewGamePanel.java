@@ -0,0 +1,66 @@
+package src;
+import javax.swing.*;
+import java.awt.*;
+
+/* ---------- NewGamePanel ---------- */
+class NewGamePanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    MainFrame parent;
+    JComboBox<String> levelCombo;
+    JComboBox<Integer> playersCombo;
+    JCheckBox aiCheck;
+    JCheckBox rerollCheck;
+
+    NewGamePanel(MainFrame p){
+        parent = p;
+        setLayout(new GridBagLayout());
+        GridBagConstraints c = new GridBagConstraints();
+        c.insets = new Insets(10,10,10,10);
+
+        c.gridx=0; c.gridy=0;
+        add(new JLabel("Choisir le niveau :"), c);
+        levelCombo = new JComboBox<>(ScoreHistory.LEVELS);
+        c.gridx=1; add(levelCombo,c);
+        // plateaux ajoutés dans boards/: la liste est lue hors de l'EDT
+        DiskIo.read(BoardLoader::levels).thenAcceptAsync(levels -> {
+            Object selected = levelCombo.getSelectedItem();
+            levelCombo.setModel(new DefaultComboBoxModel<>(levels.toArray(new String[0])));
+            if (levels.contains(selected)) levelCombo.setSelectedItem(selected);
+        }, DiskIo.EDT);
+
+        c.gridx=0; c.gridy=1;
+        add(new JLabel("Nombre de joueurs (1-3, ou mode foule) :"), c);
+        playersCombo = new JComboBox<>(new Integer[]{1,2,3,10,100,1000});
+        c.gridx=1; add(playersCombo,c);
+
+        c.gridx=0; c.gridy=2;
+        aiCheck = new JCheckBox("Inclure ordinateur (AI)");
+        add(aiCheck, c);
+
+        c.gridx=0; c.gridy=3;
+        rerollCheck = new JCheckBox("Variante: relance facultative");
+        add(rerollCheck, c);
+
+        JButton start = new JButton("Valider et Lancer");
+        start.addActionListener(e -> {
+            String lvl = (String)levelCombo.getSelectedItem();
+            int n = (Integer)playersCombo.getSelectedItem();
+            boolean ai = aiCheck.isSelected();
+            GameConfig cfg = new GameConfig(lvl, n, ai);
+            cfg.reroll = rerollCheck.isSelected();
+            parent.showGame(cfg);
+        });
+        c.gridx=0; c.gridy=4; c.gridwidth=2; add(start,c);
+
+        JButton back = new JButton("Retour");
+        back.addActionListener(e -> parent.showMenu());
+        c.gridy=5; add(back,c);
+    }
+
+    @Override
+    public void paint(Graphics g){
+        super.paint(g);
+        StartupTimer.mark("nouvelle partie");
+    }
+}
@@ -0,0 +1,203 @@
+package src;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import javax.swing.Timer;
+
+/**
+ * Animation des pions case par case.
+ *
+ * Un Timer Swing à ~60 Hz fait avancer la simulation par pas fixes de
+ * 16,7 ms et l'affichage interpole entre deux pas. Si l'EDT prend du
+ * retard, au plus MAX_STEPS_PER_TICK pas sont rattrapés et le reste est
+ * abandonné (images perdues) au lieu de bloquer le fil Swing. Le temps
+ * passé à peindre chaque image va dans l'overlay F3 (ligne "anim") et
+ * chaque animation termine par un événement JFR oie.Animation.
+ */
+class PawnAnimator {
+    static final long STEP_NANOS = 16_666_667L;
+    static final long SEGMENT_NANOS = 110_000_000L;   // durée d'une case
+    static final int MAX_STEPS_PER_TICK = 4;
+    static final double STEP = (double) STEP_NANOS / SEGMENT_NANOS;
+
+    // trajet d'un pion: suite de cases à rejoindre l'une après l'autre
+    static class Track {
+        final int[] squares;
+        int from;
+        int next;
+        int delay;    // pas à attendre avant de partir
+        double t;     // progression sur le segment courant, 0..1
+
+        Track(int from, int[] squares, int delay) {
+            this.from = from;
+            this.squares = squares;
+            this.delay = delay;
+        }
+    }
+
+    final GamePanel panel;
+    final Timer timer;
+    // images, images perdues et pire image (µs) de l'animation en cours
+    int frames, dropped;
+    long worstMicros;
+    private Metrics.AnimationEvent event;
+
+    private Track[] tracks = new Track[0];
+    private boolean[] moving = new boolean[0];
+    private long last, accumulator;
+    private Runnable onDone;
+
+    PawnAnimator(GamePanel panel) {
+        this.panel = panel;
+        this.timer = new Timer((int) (STEP_NANOS / 1_000_000), e -> tick());
+        timer.setCoalesce(true);
+    }
+
+    boolean isRunning() { return timer.isRunning(); }
+
+    // abandon de la partie: on arrête sans rappeler onDone
+    void cancel() {
+        timer.stop();
+        tracks = new Track[0];
+        moving = new boolean[0];
+        onDone = null;
+    }
+
+    /** Construit les trajets d'un coup et lance l'animation; onDone est appelé à la fin. */
+    void animate(TurnResult r, List<Player> players, int finalSquare, Runnable onDone) {
+        tracks = new Track[players.size()];
+        moving = new boolean[players.size()];
+
+        int[] path = new int[r.die + 2];
+        int n = 0, sq = r.from;
+        int peak = Math.min(r.from + r.die, finalSquare);
+        while (sq < peak) path[n++] = ++sq;
+        if (r.bounced) {
+            int landing = finalSquare - (r.from + r.die - finalSquare);
+            while (sq > landing) path[n++] = --sq;
+        }
+        if (r.jumped) path[n++] = r.target;
+        if (r.effectDest >= 0) path[n++] = r.effectDest;
+        int me = players.indexOf(r.player);
+        tracks[me] = new Track(r.from, Arrays.copyOf(path, n), 0);
+        moving[me] = true;
+
+        // l'adversaire recule une fois que le pion est arrivé sur sa case
+        if (r.opponent != null) {
+            int arrival = n - (r.effectDest >= 0 ? 1 : 0);
+            int delay = (int) Math.ceil(arrival / STEP);
+            int opp = players.indexOf(r.opponent);
+            tracks[opp] = new Track(r.target, new int[]{r.from}, delay);
+            moving[opp] = true;
+        }
+
+        this.onDone = onDone;
+        last = System.nanoTime();
+        accumulator = 0;
+        if (!timer.isRunning()) {
+            frames = dropped = 0;
+            worstMicros = 0;
+            event = new Metrics.AnimationEvent();
+            event.begin();
+            timer.start();
+        }
+    }
+
+    /** Position affichée du pion i, ou null s'il est immobile. */
+    Point point(int i) {
+        if (i >= tracks.length || tracks[i] == null) return null;
+        Track tr = tracks[i];
+        Point a = panel.squarePoint(tr.from);
+        if (tr.delay > 0 || tr.next >= tr.squares.length) return a;
+        Point b = panel.squarePoint(tr.squares[tr.next]);
+        double alpha = Math.min(1, tr.t + STEP * accumulator / STEP_NANOS);
+        return new Point((int) Math.round(a.x + (b.x - a.x) * alpha),
+                         (int) Math.round(a.y + (b.y - a.y) * alpha));
+    }
+
+    private void tick() {
+        long t0 = System.nanoTime();
+        accumulator += t0 - last;
+        last = t0;
+
+        long steps = accumulator / STEP_NANOS;
+        if (steps > MAX_STEPS_PER_TICK) {
+            dropped += (int) (steps - MAX_STEPS_PER_TICK);
+            Metrics.dropped(steps - MAX_STEPS_PER_TICK);
+            steps = MAX_STEPS_PER_TICK;
+            accumulator = accumulator % STEP_NANOS;
+        } else {
+            accumulator -= steps * STEP_NANOS;
+        }
+
+        Rectangle[] before = rects();
+        boolean active = false;
+        for (long s=0; s<steps; s++) active = step();
+        if (steps == 0) active = anyActive();
+        Rectangle[] after = rects();
+
+        for (int i=0; i<before.length; i++) {
+            if (before[i] != null) panel.paintImmediately(before[i]);
+            if (after[i] != null && !after[i].equals(before[i])) panel.paintImmediately(after[i]);
+        }
+        long nanos = System.nanoTime() - t0;
+        frames++;
+        worstMicros = Math.max(worstMicros, nanos / 1000);
+        Metrics.animFrame(nanos);
+
+        if (!active) finish();
+    }
+
+    private boolean anyActive() {
+        for (Track tr : tracks) if (tr != null) return true;
+        return false;
+    }
+
+    // avance d'un pas fixe; renvoie false quand tous les pions sont arrivés
+    private boolean step() {
+        boolean active = false;
+        for (int i=0; i<tracks.length; i++) {
+            Track tr = tracks[i];
+            if (tr == null) continue;
+            if (tr.delay > 0) { tr.delay--; active = true; continue; }
+            tr.t += STEP;
+            while (tr.t >= 1 && tr.next < tr.squares.length) {
+                tr.t -= 1;
+                tr.from = tr.squares[tr.next++];
+            }
+            if (tr.next >= tr.squares.length) tracks[i] = null;
+            else active = true;
+        }
+        return active;
+    }
+
+    // zones des pions animés; un pion arrivé compte à sa position de repos
+    private Rectangle[] rects() {
+        Rectangle[] r = new Rectangle[tracks.length];
+        if (panel.boardImage == null) return r;
+        for (int i=0; i<tracks.length; i++) {
+            if (!moving[i]) continue;
+            Point p = point(i);
+            if (p == null) p = panel.pawnPoint(i);
+            r[i] = GamePanel.pawnBounds(p);
+        }
+        return r;
+    }
+
+    private void finish() {
+        timer.stop();
+        tracks = new Track[0];
+        moving = new boolean[0];
+        Metrics.AnimationEvent ev = event;
+        event = null;
+        if (ev != null && ev.shouldCommit()) {
+            ev.frames = frames;
+            ev.dropped = dropped;
+            ev.worstMicros = worstMicros;
+            ev.commit();
+        }
+        Runnable done = onDone;
+        onDone = null;
+        if (done != null) done.run();
+    }
+}
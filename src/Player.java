@@ -0,0 +1,15 @@
+package src;
+import java.awt.*;
+
+/* ---------- Player ---------- */
+class Player {
+    String name;
+    Color color;
+    boolean human = true;   // position et score: GameEngine.pos / score
+
+    Player(String name, Color col, boolean human) {
+        this.name = name;
+        this.color = col;
+        this.human = human;
+    }
+}
@@ -0,0 +1,161 @@
+package src;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import javax.imageio.ImageIO;
+
+/**
+ * Export d'une partie enregistrée en images, sans écran:
+ *   java -Djava.awt.headless=true src.ReplayExport journals/partie.oie [dossier] [taille] [planche]
+ *
+ * Le journal est rejoué une fois pour relever l'état après chaque coup,
+ * puis chaque état est peint par GamePanel.paintComponent(), exactement
+ * comme à l'écran (plateau, pions, scores), dans une image hors écran.
+ * Les coups sont répartis sur un fil par coeur (propriété oie.threads);
+ * chaque fil a son propre GamePanel, jamais affiché, et les images de
+ * travail viennent d'une réserve commune: elles sont réutilisées d'un coup
+ * à l'autre au lieu d'être allouées.
+ *
+ * Sortie: dossier/coup_00000.png, coup_00001.png... ou, avec "planche",
+ * une seule image dossier/planche.png avec tous les coups en vignettes.
+ * Le débit (images/s) est affiché à la fin.
+ */
+class ReplayExport {
+    static final int THUMB = 240;   // largeur d'une vignette de la planche
+
+    final GameConfig cfg;
+    final int frames, size, seats;
+    final int[] pos, score, current, dice;   // état après chaque coup, un bloc de seats cases par coup
+    private final BlockingQueue<BufferedImage> pool;
+    private final ThreadLocal<Painter> painters;
+
+    /* ---------- Painter: GamePanel et moteur propres à un fil ---------- */
+    private class Painter {
+        final GameEngine engine = new GameEngine(cfg);
+        final GamePanel panel = new GamePanel(null);
+        final int[] p = new int[seats], s = new int[seats];
+
+        Painter() {
+            panel.setSize(size, size);
+            panel.showBoard(cfg, engine);
+        }
+
+        void paint(int turn, BufferedImage img) {
+            System.arraycopy(pos, turn * seats, p, 0, seats);
+            System.arraycopy(score, turn * seats, s, 0, seats);
+            engine.load(p, s, current[turn]);
+            panel.currentPlayer = current[turn];
+
+            Graphics2D g = img.createGraphics();
+            panel.paintComponent(g);
+            // à la place de la barre d'état, qui n'est pas peinte avec le panneau
+            g.setColor(Color.BLACK);
+            g.drawString(turn == 0 ? "Départ" : "Coup " + turn + " / " + (frames - 1) + "  -  dé " + dice[turn], 10, 25);
+            g.dispose();
+        }
+    }
+
+    ReplayExport(JournalReader r, int size, int threads) {
+        this.cfg = r.cfg;
+        this.size = size;
+        GameEngine e = new GameEngine(cfg);
+        seats = e.players.size();
+        int n = r.dice.size;
+        pos = new int[(n + 1) * seats];
+        score = new int[(n + 1) * seats];
+        current = new int[n + 1];
+        dice = new int[n + 1];
+        int t = 0;
+        record(e, t);
+        while (t < n && !e.isOver()) {
+            dice[t + 1] = r.dice.get(t);
+            e.step(r.dice.get(t));
+            record(e, ++t);
+        }
+        frames = t + 1;
+
+        pool = new ArrayBlockingQueue<>(threads * 2);
+        for (int i=0; i<threads * 2; i++)
+            pool.add(new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB));
+        painters = ThreadLocal.withInitial(Painter::new);
+    }
+
+    private void record(GameEngine e, int t) {
+        System.arraycopy(e.pos, 0, pos, t * seats, seats);
+        System.arraycopy(e.score, 0, score, t * seats, seats);
+        current[t] = e.currentPlayer;
+    }
+
+    /** Peint les coups en parallèle; chaque image est passée à out puis rendue à la réserve. */
+    void render(ExecutorService workers, FrameSink out) throws Exception {
+        List<Future<?>> done = new ArrayList<>(frames);
+        for (int t=0; t<frames; t++) {
+            int turn = t;
+            done.add(workers.submit(() -> {
+                BufferedImage img = pool.take();
+                try {
+                    painters.get().paint(turn, img);
+                    out.accept(turn, img);
+                } finally {
+                    pool.put(img);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : done) f.get();
+    }
+
+    interface FrameSink {
+        void accept(int turn, BufferedImage img) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("usage: ReplayExport <journal> [dossier] [taille] [planche]");
+            return;
+        }
+        System.setProperty("java.awt.headless", "true");
+        Path journal = Paths.get(args[0]);
+        String name = journal.getFileName().toString().replaceFirst("\\.oie$", "");
+        Path dir = args.length > 1 ? Paths.get(args[1]) : Paths.get("frames", name);
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 900;
+        boolean sheet = args.length > 3 && args[3].equals("planche");
+        int threads = Integer.getInteger("oie.threads", Runtime.getRuntime().availableProcessors());
+
+        ReplayExport ex = new ReplayExport(new JournalReader(Files.readAllBytes(journal)), size, threads);
+        Files.createDirectories(dir);
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "export");
+            t.setDaemon(true);
+            return t;
+        });
+
+        long t0 = System.nanoTime();
+        if (sheet) {
+            int cols = (int) Math.ceil(Math.sqrt(ex.frames));
+            int rows = (ex.frames + cols - 1) / cols;
+            int thumb = Math.min(THUMB, size);
+            BufferedImage planche = new BufferedImage(cols * thumb, rows * thumb, BufferedImage.TYPE_INT_RGB);
+            ex.render(workers, (turn, img) -> {
+                // vignettes disjointes, mais un seul Graphics2D à la fois sur la planche
+                synchronized (planche) {
+                    Graphics2D g = planche.createGraphics();
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g.drawImage(img, turn % cols * thumb, turn / cols * thumb, thumb, thumb, null);
+                    g.dispose();
+                }
+            });
+            ImageIO.write(planche, "png", dir.resolve("planche.png").toFile());
+        } else {
+            ex.render(workers, (turn, img) ->
+                    ImageIO.write(img, "png", dir.resolve(String.format("coup_%05d.png", turn)).toFile()));
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("%d images %dx%d en %.2f s (%.1f images/s, %d fils) -> %s%n",
+                ex.frames, size, size, secs, ex.frames / secs, threads, sheet ? dir.resolve("planche.png") : dir);
+    }
+}
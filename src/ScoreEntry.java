@@ -0,0 +1,14 @@
+package src;
+import java.io.*;
+
+class ScoreEntry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    String name;
+    int score;
+
+    ScoreEntry(String n, int s){
+        name = n;
+        score = s;
+    }
+}
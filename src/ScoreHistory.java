@@ -0,0 +1,376 @@
+package src;
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Historique complet des parties, dans un fichier à enregistrements fixes
+ * de 24 octets, en ajout seul et projeté en mémoire par segments de 1,5 Mo.
+ *
+ * Enregistrement: long date, int score, int coups, octet niveau, octet
+ * joueurs, octet drapeaux (IA présente, IA gagnante), 3 octets d'initiales.
+ * L'en-tête (64 octets) contient "OIEH", la version et le nombre
+ * d'enregistrements, mis à jour après chaque ajout.
+ *
+ * Octet niveau: 0..2 pour les niveaux livrés (LEVELS), au-delà l'indice
+ * d'un plateau ajouté dans le dictionnaire history.dat.niveaux (un nom par
+ * ligne, dans l'ordre des codes), complété avant le premier enregistrement
+ * qui s'en sert.
+ *
+ * Les index (par niveau, par initiales, meilleurs scores) et les agrégats
+ * par niveau (LevelStats) sont construits à l'ouverture en une passe, puis
+ * mis à jour à chaque ajout; les dates étant croissantes, les requêtes par
+ * période sont une recherche dichotomique dans le fichier.
+ *
+ * Mesure sur un gros historique:
+ *   java src.ScoreHistory bench 20000000
+ */
+class ScoreHistory implements Closeable {
+    static final int MAGIC = 0x4F494548;   // "OIEH"
+    static final int VERSION = 1;
+    static final int HEADER = 64;
+    static final int RECORD = 24;
+    static final int SEGMENT_SHIFT = 16;   // 65536 enregistrements par segment
+    static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+    static final long SEGMENT_BYTES = (long) SEGMENT_RECORDS * RECORD;
+    static final int TOP_MAX = 100;
+    static final String[] LEVELS = {"FACILE", "DIFFICILE", "FOULE"};
+    static final int ALL = 255;   // emplacement des index et agrégats tous niveaux; codes 0..254
+
+    private static ScoreHistory shared;
+
+    static synchronized ScoreHistory shared() {
+        if (shared == null) {
+            try {
+                shared = new ScoreHistory(Paths.get("history.dat"));
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return shared;
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long count;
+    private long lastTimestamp;
+
+    private final Path levelFile;
+    private final List<String> levels = new ArrayList<>(Arrays.asList(LEVELS));   // nom par code
+    private final IntList[] byLevel = new IntList[ALL];
+    private final IntList[] byInitials = new IntList[1 << 21];    // 3 caractères ASCII de 7 bits
+    private final int[][] top = new int[ALL + 1][];          // ALL = tous niveaux
+    private final int[] topSize = new int[ALL + 1];
+    private final LevelStats[] stats = new LevelStats[ALL + 1];   // ALL = tous niveaux
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "history-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    ScoreHistory(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = channel.size() < HEADER;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+        if (fresh) {
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, RECORD);
+            header.putLong(12, 0);
+        } else if (header.getInt(0) != MAGIC || header.getInt(8) != RECORD) {
+            throw new IOException("Fichier d'historique invalide: " + file);
+        }
+        count = header.getLong(12);
+
+        levelFile = file.resolveSibling(file.getFileName() + ".niveaux");
+        if (Files.exists(levelFile))
+            for (String l : Files.readAllLines(levelFile, StandardCharsets.UTF_8))
+                if (!l.isEmpty()) levels.add(l);
+        for (int i=0; i<byLevel.length; i++) byLevel[i] = new IntList();
+        for (int i=0; i<top.length; i++) top[i] = new int[TOP_MAX];
+        for (int i=0; i<stats.length; i++) stats[i] = new LevelStats();
+        for (long i=0; i<count; i++) index(seg(i), offset(i), (int) i);
+        if (count > 0) lastTimestamp = timestamp(count - 1);
+    }
+
+    private MappedByteBuffer segment(int seg) throws IOException {
+        while (segments.size() <= seg) {
+            long pos = HEADER + segments.size() * SEGMENT_BYTES;
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, pos, SEGMENT_BYTES));
+        }
+        return segments.get(seg);
+    }
+
+    private MappedByteBuffer seg(long id) {
+        try {
+            return segment((int) (id >>> SEGMENT_SHIFT));
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int offset(long id) { return (int) (id & (SEGMENT_RECORDS - 1)) * RECORD; }
+
+    synchronized long size() { return count; }
+
+    private final AtomicInteger queuedAppends = new AtomicInteger();
+
+    /**
+     * Ajoute une partie en tâche de fond (ne bloque pas l'EDT). Les ajouts
+     * en file sont écrits à la suite et forcés sur disque une seule fois.
+     */
+    CompletableFuture<Void> appendAsync(GameRecord r) {
+        queuedAppends.incrementAndGet();
+        return DiskIo.write(writer, () -> {
+            append(r);
+            if (queuedAppends.decrementAndGet() == 0) force();
+            return null;
+        });
+    }
+
+    /** Ouvre l'historique partagé hors de l'EDT puis y ajoute la partie. */
+    static CompletableFuture<Void> recordAsync(GameRecord r) {
+        return DiskIo.read(ScoreHistory::shared).thenCompose(h -> h.appendAsync(r));
+    }
+
+    synchronized long append(GameRecord r) {
+        long id = count;
+        // dates croissantes pour la recherche par période
+        long ts = Math.max(r.timestamp, lastTimestamp);
+        MappedByteBuffer b = seg(id);
+        int o = offset(id);
+        b.putLong(o, ts);
+        b.putInt(o + 8, r.score);
+        b.putInt(o + 12, r.turns);
+        b.put(o + 16, (byte) code(r.level));
+        b.put(o + 17, (byte) Math.min(255, r.nPlayers));   // 255: mode foule
+        b.put(o + 18, (byte) ((r.includeAI ? 1 : 0) | (r.aiWon ? 2 : 0)));
+        byte[] ini = pad(r.initials);
+        b.put(o + 19, ini[0]);
+        b.put(o + 20, ini[1]);
+        b.put(o + 21, ini[2]);
+
+        count = id + 1;
+        header.putLong(12, count);
+        lastTimestamp = ts;
+        index(b, o, (int) id);
+        return id;
+    }
+
+    synchronized void force() {
+        for (MappedByteBuffer s : segments) s.force();
+        header.force();
+    }
+
+    // code fixe d'un niveau livré, -1 pour un plateau ajouté dans boards/
+    static int levelIndex(String level) {
+        for (int i=0; i<LEVELS.length; i++) if (LEVELS[i].equals(level)) return i;
+        return -1;
+    }
+
+    static int levelCode(String level) {
+        int i = levelIndex(level);
+        if (i < 0) throw new IllegalArgumentException("niveau sans code: " + level);
+        return i;
+    }
+
+    // code du niveau dans cet historique; un plateau ajouté est d'abord écrit au dictionnaire
+    private int code(String level) {
+        int i = levels.indexOf(level);
+        if (i >= 0) return i;
+        if (levels.size() >= ALL) throw new IllegalStateException("trop de niveaux dans l'historique");
+        try {
+            Files.write(levelFile, List.of(level), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        levels.add(level);
+        return levels.size() - 1;
+    }
+
+    // niveau d'un enregistrement; un code absent du dictionnaire (fichier perdu) reste lisible
+    private String levelName(int code) {
+        return code < levels.size() ? levels.get(code) : "#" + code;
+    }
+
+    private static byte[] pad(String s) {
+        byte[] b = {' ', ' ', ' '};
+        byte[] src = (s == null ? "" : s).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(src, 0, b, 0, Math.min(3, src.length));
+        return b;
+    }
+
+    private void index(MappedByteBuffer b, int o, int id) {
+        int level = b.get(o + 16) & 0xFF;
+        byLevel[level].add(id);
+        int key = initialsKey(b.get(o + 19), b.get(o + 20), b.get(o + 21));
+        if (byInitials[key] == null) byInitials[key] = new IntList();
+        byInitials[key].add(id);
+        offerTop(level, id);
+        offerTop(ALL, id);
+        int score = b.getInt(o + 8), turns = b.getInt(o + 12), flags = b.get(o + 18);
+        stats[level].add(score, turns, flags);
+        stats[ALL].add(score, turns, flags);
+    }
+
+    private static int initialsKey(int a, int b, int c) {
+        return (a & 0x7F) << 14 | (b & 0x7F) << 7 | (c & 0x7F);
+    }
+
+    // meilleurs scores triés décroissants, à égalité le plus ancien d'abord
+    private void offerTop(int slot, int id) {
+        int[] t = top[slot];
+        int n = topSize[slot];
+        int s = score(id);
+        if (n == TOP_MAX && s <= score(t[n-1])) return;
+        int i = Math.min(n, TOP_MAX - 1);
+        while (i > 0 && score(t[i-1]) < s) { t[i] = t[i-1]; i--; }
+        t[i] = id;
+        if (n < TOP_MAX) topSize[slot] = n + 1;
+    }
+
+    long timestamp(long id) { return seg(id).getLong(offset(id)); }
+    int score(long id)      { return seg(id).getInt(offset(id) + 8); }
+
+    String initials(long id) {
+        MappedByteBuffer b = seg(id);
+        int o = offset(id);
+        return new String(new byte[]{b.get(o + 19), b.get(o + 20), b.get(o + 21)},
+                StandardCharsets.US_ASCII).trim();
+    }
+
+    synchronized GameRecord get(long id) {
+        MappedByteBuffer b = seg(id);
+        int o = offset(id);
+        int flags = b.get(o + 18);
+        return new GameRecord(b.getLong(o), levelName(b.get(o + 16) & 0xFF), b.get(o + 17) & 0xFF,
+                (flags & 1) != 0, (flags & 2) != 0, b.getInt(o + 12), b.getInt(o + 8), initials(id));
+    }
+
+    /** Copie des agrégats: un par niveau (livrés, puis ajoutés), puis tous niveaux confondus. */
+    synchronized LevelStats[] stats() {
+        LevelStats[] c = new LevelStats[levels.size() + 1];
+        for (int i=0; i<levels.size(); i++) {
+            c[i] = stats[i].copy();
+            c[i].level = levels.get(i);
+        }
+        c[levels.size()] = stats[ALL].copy();
+        return c;
+    }
+
+    /**
+     * n parties à partir du rang first, la plus récente au rang 0, parmi les
+     * total premières (l'affichage garde sa numérotation pendant les ajouts).
+     */
+    synchronized GameRecord[] recent(long total, long first, int n) {
+        int k = (int) Math.max(0, Math.min(n, total - first));
+        GameRecord[] page = new GameRecord[k];
+        for (int i=0; i<k; i++) page[i] = get(total - 1 - first - i);
+        return page;
+    }
+
+    /** Les k meilleurs scores d'un niveau (null = tous niveaux), k <= 100. */
+    synchronized List<GameRecord> topK(String level, int k) {
+        int slot = level == null ? ALL : levels.indexOf(level);
+        if (slot < 0) return new ArrayList<>();
+        int n = Math.min(k, topSize[slot]);
+        List<GameRecord> l = new ArrayList<>(n);
+        for (int i=0; i<n; i++) l.add(get(top[slot][i]));
+        return l;
+    }
+
+    /** Les dernières parties d'un joueur, de la plus récente à la plus ancienne. */
+    synchronized List<GameRecord> playerHistory(String initials, int limit) {
+        byte[] ini = pad(initials.trim().toUpperCase());
+        IntList ids = byInitials[initialsKey(ini[0], ini[1], ini[2])];
+        List<GameRecord> l = new ArrayList<>();
+        if (ids == null) return l;
+        for (int i=ids.size-1; i>=0 && l.size()<limit; i--) l.add(get(ids.get(i)));
+        return l;
+    }
+
+    /** Les dernières parties d'un niveau, de la plus récente à la plus ancienne. */
+    synchronized List<GameRecord> levelHistory(String level, int limit) {
+        int code = levels.indexOf(level);
+        List<GameRecord> l = new ArrayList<>();
+        if (code < 0) return l;
+        IntList ids = byLevel[code];
+        for (int i=ids.size-1; i>=0 && l.size()<limit; i--) l.add(get(ids.get(i)));
+        return l;
+    }
+
+    /** Intervalle [début, fin) des identifiants joués entre from (inclus) et to (exclu). */
+    synchronized long[] dateRange(long from, long to) {
+        return new long[]{lowerBound(from), lowerBound(to)};
+    }
+
+    private long lowerBound(long ts) {
+        long lo = 0, hi = count;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (timestamp(mid) < ts) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        writer.shutdown();
+        channel.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !args[0].equals("bench")) {
+            try (ScoreHistory h = new ScoreHistory(Paths.get(args.length > 0 ? args[0] : "history.dat"))) {
+                System.out.println(h.size() + " parties");
+                for (GameRecord r : h.topK(null, 10)) System.out.println(r);
+            }
+            return;
+        }
+        long n = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000;
+        Path f = Files.createTempFile("history", ".dat");
+        Files.delete(f);
+        try (ScoreHistory h = new ScoreHistory(f)) {
+            SplittableRandom rng = new SplittableRandom(1);
+            long t0 = System.nanoTime(), ts = 1_600_000_000_000L;
+            for (long i=0; i<n; i++) {
+                ts += rng.nextInt(60_000);
+                String ini = "" + (char) ('A' + rng.nextInt(26)) + (char) ('A' + rng.nextInt(26)) + (char) ('A' + rng.nextInt(26));
+                h.append(new GameRecord(ts, LEVELS[rng.nextInt(2)], 1 + rng.nextInt(3), rng.nextBoolean(),
+                        false, 10 + rng.nextInt(200), rng.nextInt(3000), ini));
+            }
+            h.force();
+            System.out.printf("%d ajouts en %.1f s%n", n, (System.nanoTime() - t0) / 1e9);
+        }
+        long t0 = System.nanoTime();
+        try (ScoreHistory h = new ScoreHistory(f)) {
+            System.out.printf("Ouverture et index: %.1f ms%n", (System.nanoTime() - t0) / 1e6);
+            for (int round=0; round<3; round++) {
+                t0 = System.nanoTime();
+                List<GameRecord> t = h.topK("DIFFICILE", 10);
+                long t1 = System.nanoTime();
+                List<GameRecord> p = h.playerHistory("ABC", 50);
+                long t2 = System.nanoTime();
+                long mid = h.timestamp(h.size() / 2);
+                long[] r = h.dateRange(mid, mid + 86_400_000L);
+                long t3 = System.nanoTime();
+                System.out.printf("top10 %.3f ms  joueur (%d) %.3f ms  période (%d) %.3f ms%n",
+                        (t1 - t0) / 1e6, p.size(), (t2 - t1) / 1e6, r[1] - r[0], (t3 - t2) / 1e6);
+                if (round == 0 && !t.isEmpty()) System.out.println("  meilleur: " + t.get(0));
+            }
+        } finally {
+            Files.deleteIfExists(f);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package src;
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/* ---------- ScoreManager: top 10 en mémoire, écriture différée ---------- */
+/*
+ * Le classement est lu une seule fois, sur le fil "scores-writer", puis
+ * modifié en place; l'interface attend ready() avant de s'en servir. Chaque
+ * modification programme une écriture sur ce même fil; les
+ * écritures rapprochées sont fusionnées. Le fichier est écrit dans
+ * scores.dat.tmp, synchronisé sur disque, puis renommé atomiquement.
+ *
+ * Format binaire: int "OIES", octet version, octet n, puis n fois
+ * (UTF initiales, int score). Un ancien fichier en sérialisation Java
+ * est migré au premier chargement et conservé en scores.dat.v0.
+ */
+class ScoreManager {
+    static final int MAGIC = 0x4F494553;   // "OIES"
+    static final int VERSION = 1;
+    static final int TOP_SIZE = 10;
+
+    private static ScoreManager shared;
+
+    static synchronized ScoreManager shared() {
+        if (shared == null) shared = new ScoreManager();
+        return shared;
+    }
+
+    private final Path file;
+    private final List<ScoreEntry> top = new ArrayList<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "scores-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    ScoreManager(){ this("scores.dat"); }
+
+    private final CompletableFuture<ScoreManager> loaded;
+
+    ScoreManager(String file){
+        this.file = Paths.get(file);
+        loaded = CompletableFuture.supplyAsync(() -> { loadScores(); return this; }, writer);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "scores-flush"));
+    }
+
+    private static List<ScoreEntry> blank() {
+        List<ScoreEntry> l = new ArrayList<>();
+        for (int i=0;i<TOP_SIZE;i++)
+            l.add(new ScoreEntry("---",0));
+        return l;
+    }
+
+    /** Relit le fichier (normalement seulement à la création). */
+    synchronized void loadScores(){
+        Metrics.ScoreIoEvent ev = new Metrics.ScoreIoEvent();
+        ev.begin();
+        long t0 = System.nanoTime();
+        readScores();
+        Metrics.scoreIo(ev, "lecture", file, top.size(), t0);
+    }
+
+    private void readScores(){
+        top.clear();
+        if (!Files.exists(file)) {
+            top.addAll(blank());
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            in.mark(4);
+            if (in.readUnsignedShort() == 0xACED) {
+                in.reset();
+                migrateLegacy(in);
+                return;
+            }
+            in.reset();
+            if (in.readInt() != MAGIC || in.readUnsignedByte() > VERSION)
+                throw new IOException("format inconnu");
+            int n = in.readUnsignedByte();
+            for (int i=0;i<n;i++)
+                top.add(new ScoreEntry(in.readUTF(), in.readInt()));
+        } catch(Exception e) {
+            top.clear();
+            top.addAll(blank());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void migrateLegacy(InputStream in) throws IOException {
+        try (ObjectInputStream oin = new ObjectInputStream(in)) {
+            for (ScoreEntry e : (List<ScoreEntry>) oin.readObject())
+                top.add(new ScoreEntry(e.name, e.score));
+        } catch(Exception e) {
+            // ancien fichier illisible (ex: exception sérialisée à la place du classement)
+            top.clear();
+            top.addAll(blank());
+        }
+        Files.copy(file, file.resolveSibling(file.getFileName() + ".v0"), StandardCopyOption.REPLACE_EXISTING);
+        saveScores();
+    }
+
+    /** Résolu une fois le classement lu; à chaîner sur l'EDT avec DiskIo.EDT. */
+    CompletableFuture<ScoreManager> ready(){ return loaded; }
+
+    // garde-fou hors interface: attend la lecture (jamais sous le verrou, que la lecture prend)
+    private void awaitLoad(){ loaded.join(); }
+
+    /** Programme une écriture; sans effet si une écriture est déjà en attente. */
+    void saveScores(){
+        if (scheduled.compareAndSet(false, true))
+            DiskIo.write(writer, () -> {
+                scheduled.set(false);
+                writeNow();
+                return null;
+            });
+    }
+
+    /** Attend que les écritures en attente soient sur disque. */
+    void flush(){
+        try {
+            writer.submit(() -> {}).get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch(ExecutionException | RuntimeException e) {
+            System.err.println("Classement: écritures en attente non confirmées (" + file + "): " + e);
+        }
+    }
+
+    private void writeNow() throws IOException {
+        Metrics.ScoreIoEvent ev = new Metrics.ScoreIoEvent();
+        ev.begin();
+        long t0 = System.nanoTime();
+        List<ScoreEntry> snap;
+        synchronized (this) { snap = new ArrayList<>(top); }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch)));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(snap.size());
+            for (ScoreEntry e : snap) {
+                out.writeUTF(e.name);
+                out.writeInt(e.score);
+            }
+            out.flush();
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Metrics.scoreIo(ev, "écriture", file, snap.size(), t0);
+    }
+
+    boolean isTopScore(int s){
+        awaitLoad();
+        synchronized (this) {
+            for (ScoreEntry e : top)
+                if (s >= e.score) return true;
+            return false;
+        }
+    }
+
+    void addScore(String initials, int s){
+        awaitLoad();
+        synchronized (this) {
+            int i = 0;
+            while (i < top.size() && top.get(i).score >= s) i++;
+            top.add(i, new ScoreEntry(initials, s));
+            while (top.size() > TOP_SIZE)
+                top.remove(top.size() - 1);
+        }
+        saveScores();
+    }
+
+    /** Vide le classement (bouton Réinitialiser). */
+    void reset(){
+        awaitLoad();
+        synchronized (this) {
+            top.clear();
+            top.addAll(blank());
+        }
+        saveScores();
+    }
+
+    List<ScoreEntry> getTop(){
+        awaitLoad();
+        synchronized (this) { return new ArrayList<>(top); }
+    }
+}
@@ -0,0 +1,83 @@
+package src;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import javax.swing.SwingUtilities;
+
+/**
+ * Mesure du démarrage à froid:
+ *   java src.JeuDeLOie --startup-timing
+ *
+ * La fenêtre s'ouvre sur le menu puis passe seule par chaque écran
+ * (nouvelle partie, statistiques, partie FACILE à 2) et affiche, depuis le
+ * lancement de la JVM, l'instant où chacun est utilisable: peint, avec ses
+ * données. "préchargement" marque la fin du travail de fond lancé derrière
+ * le menu. Une ligne est ajoutée à startup.csv pour suivre l'évolution
+ * d'une version à l'autre, puis le programme s'arrête. La partie
+ * sauvegardée n'est pas touchée.
+ */
+class StartupTimer {
+    static final String[] STEPS = {"main", "menu", "nouvelle partie", "statistiques", "jeu", "préchargement"};
+    static final Path CSV = Paths.get("startup.csv");
+
+    static volatile boolean enabled;
+    private static long startMs;
+    private static final long[] at = new long[STEPS.length];   // ms depuis le lancement, -1 si pas encore
+    private static final Map<String,Runnable> next = new HashMap<>();
+
+    static void start() {
+        startMs = ProcessHandle.current().info().startInstant()
+                .map(java.time.Instant::toEpochMilli).orElse(System.currentTimeMillis());
+        Arrays.fill(at, -1);
+        enabled = true;
+        mark("main");
+    }
+
+    /** Premier passage à l'étape: note l'instant et lance la suite prévue. Sans effet hors mesure. */
+    static void mark(String step) {
+        if (!enabled) return;
+        Runnable r;
+        synchronized (StartupTimer.class) {
+            int i = Arrays.asList(STEPS).indexOf(step);
+            if (at[i] >= 0) return;
+            at[i] = System.currentTimeMillis() - startMs;
+            System.out.printf("%-16s %6d ms%n", step, at[i]);
+            r = next.remove(step);
+        }
+        if (r != null) SwingUtilities.invokeLater(r);
+    }
+
+    /** Exécute r sur l'EDT une fois l'étape atteinte (tout de suite si c'est déjà fait). */
+    static void then(String step, Runnable r) {
+        synchronized (StartupTimer.class) {
+            if (at[Arrays.asList(STEPS).indexOf(step)] < 0) {
+                next.put(step, r);
+                return;
+            }
+        }
+        SwingUtilities.invokeLater(r);
+    }
+
+    /** Ajoute la mesure à startup.csv puis quitte. */
+    static void finish() {
+        StringBuilder line = new StringBuilder();
+        line.append(String.format("%tF %<tT", new Date())).append(',').append(System.getProperty("java.version"));
+        synchronized (StartupTimer.class) {
+            for (long t : at) line.append(',').append(t);
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                boolean fresh = !Files.exists(CSV);
+                try (Writer w = Files.newBufferedWriter(CSV, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    if (fresh) w.write("date,java," + String.join(",", STEPS) + "\n");
+                    w.write(line + "\n");
+                }
+            } catch(IOException e) {
+                e.printStackTrace();
+            }
+        }).whenComplete((v, ex) -> System.exit(0));
+    }
+}
@@ -0,0 +1,123 @@
+package src;
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+/* ---------- StatsPanel: top 10, agrégats par niveau et historique complet ---------- */
+/*
+ * Rien n'est recalculé à l'ouverture: les agrégats sont tenus à jour par
+ * ScoreHistory à chaque partie, et le tableau des parties ne lit que les
+ * pages affichées. L'écran s'ouvre aussi vite avec des millions de parties.
+ */
+class StatsPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    static final String[] SUMMARY_COLUMNS = {"Niveau", "Parties", "Score moyen", "p50", "p90", "p99",
+                                             "Coups moyens", "Contre l'AI", "Victoires AI"};
+
+    MainFrame parent;
+    ScoreManager manager = ScoreManager.shared();
+    JTextArea text;
+    javax.swing.table.DefaultTableModel summary = new javax.swing.table.DefaultTableModel(SUMMARY_COLUMNS, 0) {
+        private static final long serialVersionUID = 1L;
+        @Override
+        public boolean isCellEditable(int r, int c) { return false; }
+    };
+    HistoryTableModel games = new HistoryTableModel();
+    JLabel count = new JLabel();
+
+    StatsPanel(MainFrame p){
+        parent = p;
+        setLayout(new BorderLayout());
+
+        text = new JTextArea();
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane topScroll = new JScrollPane(text);
+        topScroll.setPreferredSize(new Dimension(170, 0));
+        add(topScroll, BorderLayout.WEST);
+
+        JTable summaryTable = new JTable(summary);
+        JScrollPane summaryScroll = new JScrollPane(summaryTable);
+        summaryScroll.setPreferredSize(new Dimension(0, summaryTable.getRowHeight() * (ScoreHistory.LEVELS.length + 1) + 30));
+        add(summaryScroll, BorderLayout.NORTH);
+
+        // hauteur de ligne fixe: JTable ne mesure aucune ligne hors de la zone visible
+        JTable gamesTable = new JTable(games);
+        gamesTable.setFillsViewportHeight(true);
+        gamesTable.getColumnModel().getColumn(0).setPreferredWidth(150);
+        add(new JScrollPane(gamesTable), BorderLayout.CENTER);
+
+        JPanel bottom = new JPanel();
+        bottom.add(count);
+
+        JButton reset = new JButton("Réinitialiser");
+        // reset() attend la lecture du classement: seulement une fois celle-ci finie
+        reset.addActionListener(e -> manager.ready().thenAcceptAsync(m -> {
+            m.reset();
+            loadScores();
+        }, DiskIo.EDT));
+        bottom.add(reset);
+
+        JButton back = new JButton("Retour");
+        back.addActionListener(e -> parent.showMenu());
+        bottom.add(back);
+        bottom.add(DiskIo.indicator());
+
+        add(bottom, BorderLayout.SOUTH);
+    }
+
+    void loadScores(){
+        manager.ready().thenAcceptAsync(m -> showScores(m.getTop()), DiskIo.EDT);
+        // ouverture de l'historique (index en une passe, la première fois) et copie des agrégats hors EDT
+        DiskIo.read(() -> ScoreHistory.shared().stats())
+            .whenCompleteAsync((s, ex) -> {
+                if (s == null) {
+                    count.setText("Historique illisible");
+                    return;
+                }
+                showHistory(s);
+            }, DiskIo.EDT);
+    }
+
+    boolean shown;
+
+    @Override
+    public void paint(Graphics g){
+        super.paint(g);
+        if (shown) StartupTimer.mark("statistiques");
+    }
+
+    private void showScores(List<ScoreEntry> list){
+        shown = true;
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("Top 10:\n");
+        int i = 1;
+        for (ScoreEntry s : list) {
+            sb.append(String.format("%2d: %3s  %5d\n", i, s.name, s.score));
+            i++;
+        }
+
+        text.setText(sb.toString());
+    }
+
+    private void showHistory(LevelStats[] stats){
+        summary.setRowCount(0);
+        for (int i=0; i<stats.length; i++) {
+            LevelStats s = stats[i];
+            String level = s.level != null ? s.level : "Tous";
+            if (s.games == 0) {
+                summary.addRow(new Object[]{level, 0, "-", "-", "-", "-", "-", 0, "-"});
+                continue;
+            }
+            summary.addRow(new Object[]{level, s.games, String.format("%.1f", s.meanScore()),
+                    s.scores.percentile(0.5), s.scores.percentile(0.9), s.scores.percentile(0.99),
+                    String.format("%.1f", s.meanTurns()), s.aiGames,
+                    s.aiGames == 0 ? "-" : String.format("%.1f %%", 100 * s.aiWinRate())});
+        }
+        long total = stats[stats.length - 1].games;
+        count.setText(String.format("%,d parties", total));
+        games.reset(ScoreHistory.shared(), total);
+    }
+}
@@ -0,0 +1,201 @@
+package src;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tournoi sans affichage: joue des parties en parallèle et écrit une ligne
+ * par partie au fil de l'eau, en CSV (fichier .csv) ou en binaire.
+ *
+ * Chaque coeur prend les parties par blocs; la partie i utilise le dé
+ * DiceRng(graine + i), donc une partie se rejoue seule quel que soit le
+ * nombre de fils. Les lignes passent par paquets dans une file bornée vers
+ * un seul fil d'écriture: la mémoire reste constante quel que soit le
+ * nombre de parties, et les calculateurs attendent si le disque ne suit pas.
+ *
+ * Pour lancer:
+ *   java src.JeuDeLOie --tournament [FACILE|DIFFICILE] [joueurs] [ia] [parties] [graine] [sortie]
+ *
+ * Format binaire: "OIET" | version | niveau | joueurs | drapeaux | graine
+ *   | nombre de pions, puis par partie: numéro (long) | gagnant (octet, -1 si
+ *   interrompue) | coups | prises | cases spéciales | score de chaque pion
+ */
+class Tournament {
+    static final int MAGIC = 0x4F494554;   // "OIET"
+    static final int VERSION = 1;
+    static final int BATCH = 1024;         // parties par paquet
+    static final int QUEUE_BATCHES = 64;
+    static final long PROGRESS_MS = 1000;
+
+    /* ---------- Batch: lignes d'un bloc de parties, en tableaux primitifs ---------- */
+    static class Batch {
+        final long first;
+        int size;
+        final byte[] winner = new byte[BATCH];
+        final int[] turns = new int[BATCH], swaps = new int[BATCH], specials = new int[BATCH];
+        final int[] scores;
+
+        Batch(long first, int seats) {
+            this.first = first;
+            scores = new int[BATCH * seats];
+        }
+    }
+
+    private static final Batch POISON = new Batch(-1, 0);
+
+    final GameConfig cfg;
+    final int seats;
+    final long games, seed;
+    final AtomicLong next = new AtomicLong(), done = new AtomicLong();
+    final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+
+    Tournament(GameConfig cfg, long games, long seed) {
+        this.cfg = cfg;
+        this.seats = GameEngine.createPlayers(cfg).size();
+        this.games = games;
+        this.seed = seed;
+    }
+
+    // boucle d'un calculateur: réserve un bloc, le joue, le passe à l'écriture
+    void play() {
+        GameEngine engine = new GameEngine(cfg);
+        DiceRng rng = new DiceRng(0);
+        try {
+            for (long first; (first = next.getAndAdd(BATCH)) < games; ) {
+                Batch b = new Batch(first, seats);
+                b.size = (int) Math.min(BATCH, games - first);
+                for (int g=0; g<b.size; g++) {
+                    engine.reset();
+                    rng.state = seed + first + g;
+                    while (!engine.isOver() && engine.turns < BatchSimulator.MAX_TURNS)
+                        engine.roll(rng);
+                    b.winner[g] = (byte) engine.winner;
+                    b.turns[g] = engine.turns;
+                    b.swaps[g] = engine.swaps;
+                    b.specials[g] = engine.specialHits;
+                    for (int i=0; i<seats; i++) b.scores[g * seats + i] = engine.score[i];
+                }
+                queue.put(b);
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void write(Path out) throws IOException, InterruptedException {
+        boolean csv = out.toString().endsWith(".csv");
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(out), 1 << 16)) {
+            DataOutputStream bin = new DataOutputStream(os);
+            Writer text = new OutputStreamWriter(os, java.nio.charset.StandardCharsets.UTF_8);
+            StringBuilder line = new StringBuilder(128);
+            if (csv) {
+                text.write("partie,gagnant,coups,prises,cases_speciales");
+                for (int i=0; i<seats; i++) text.write(",score" + (i+1));
+                text.write('\n');
+            } else {
+                bin.writeInt(MAGIC);
+                bin.writeByte(VERSION);
+                GameJournal.writeLevel(bin, cfg.level);
+                bin.writeByte(cfg.nPlayers);
+                bin.writeByte(cfg.flags());
+                bin.writeLong(seed);
+                bin.writeByte(seats);
+            }
+            for (Batch b; (b = queue.take()) != POISON; ) {
+                for (int g=0; g<b.size; g++) {
+                    if (csv) {
+                        line.setLength(0);
+                        line.append(b.first + g).append(',').append(b.winner[g] + 1).append(',')
+                            .append(b.turns[g]).append(',').append(b.swaps[g]).append(',').append(b.specials[g]);
+                        for (int i=0; i<seats; i++) line.append(',').append(b.scores[g * seats + i]);
+                        line.append('\n');
+                        text.append(line);
+                    } else {
+                        bin.writeLong(b.first + g);
+                        bin.writeByte(b.winner[g]);
+                        bin.writeInt(b.turns[g]);
+                        bin.writeInt(b.swaps[g]);
+                        bin.writeInt(b.specials[g]);
+                        for (int i=0; i<seats; i++) bin.writeInt(b.scores[g * seats + i]);
+                    }
+                }
+                done.addAndGet(b.size);
+            }
+            text.flush();
+            bin.flush();
+        }
+    }
+
+    void run(Path out, int threads) throws Exception {
+        ExecutorService writer = Executors.newSingleThreadExecutor(r -> new Thread(r, "tournament-writer"));
+        Future<?> written = writer.submit(() -> { write(out); return null; });
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            int i;
+            @Override
+            public Thread newThread(Runnable r) { return new Thread(r, "tournament-" + i++); }
+        });
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int i=0; i<threads; i++) workers.add(pool.submit(() -> { play(); return null; }));
+        pool.shutdown();
+
+        long t0 = System.nanoTime(), lastDone = 0, lastT = t0;
+        try {
+            for (Future<?> w : workers) {
+                for (;;) {
+                    try {
+                        w.get(PROGRESS_MS, TimeUnit.MILLISECONDS);   // l'erreur d'un calculateur remonte ici
+                        break;
+                    } catch(TimeoutException e) {
+                        // pas fini: on affiche l'avancement
+                    }
+                    if (written.isDone()) written.get();   // erreur d'écriture
+                    long now = System.nanoTime();
+                    if (now - lastT >= PROGRESS_MS * 1_000_000) {
+                        long d = done.get();
+                        System.out.printf("%,d / %,d parties (%.1f%%)  %,.0f parties/s  file: %d paquets%n",
+                                d, games, 100.0 * d / games, (d - lastDone) * 1e9 / (now - lastT), queue.size());
+                        lastDone = d;
+                        lastT = now;
+                    }
+                }
+            }
+        } catch(Exception e) {
+            // un bloc perdu laisserait un fichier incomplet sans le dire: on arrête tout
+            pool.shutdownNow();
+            written.cancel(true);
+            writer.shutdownNow();
+            throw e;
+        }
+        queue.put(POISON);
+        written.get();
+        writer.shutdown();
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("%,d parties en %.2f s (%,.0f parties/s, %d fils) -> %s%n",
+                done.get(), secs, done.get() / secs, threads, out);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String level = args.length > 0 ? args[0].toUpperCase() : "FACILE";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        boolean ai = args.length > 2 && Boolean.parseBoolean(args[2]);
+        long games = args.length > 3 ? Long.parseLong(args[3]) : 1_000_000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        Path out = Paths.get(args.length > 5 ? args[5] : "tournoi.csv");
+        if (!level.equals("FACILE") && !level.equals("DIFFICILE") || n < 1 || n + (ai ? 1 : 0) > 4) {
+            System.out.println("usage: --tournament [FACILE|DIFFICILE] [joueurs 1-4, AI compris] [ia] [parties] [graine] [sortie .csv|.bin]");
+            return;
+        }
+
+        int threads = Integer.getInteger("oie.threads", Runtime.getRuntime().availableProcessors());
+        System.out.println(level + ", " + n + " joueur(s)" + (ai ? " + AI" : "") + ", graine " + seed);
+        try {
+            new Tournament(new GameConfig(level, n, ai), games, seed).run(out, threads);
+        } catch(ExecutionException e) {
+            System.err.println("Tournoi interrompu, " + out + " est incomplet:");
+            e.getCause().printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package src;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Décisions de l'ordinateur par expectimax.
+ *
+ * Avant de lancer le dé, l'AI calcule pour chacune des six faces s'il vaut
+ * mieux la garder ou relancer (variante "relance facultative"). L'arbre
+ * alterne noeuds de hasard (les six faces) et décisions; les adversaires
+ * sont supposés jouer contre l'AI (paranoïaque). Aux feuilles, la valeur
+ * est l'écart d'espérance de coups restants (BoardAnalytics) avec le
+ * meilleur adversaire, plus un léger bonus de score.
+ *
+ * La recherche tourne sur le fil "ai" par approfondissement itératif
+ * jusqu'au budget de temps (propriété oie.ai.ms, 300 ms par défaut), avec
+ * une table de transposition (positions, scores, joueur courant). Chaque
+ * recherche termine par un événement JFR oie.AiPlan (profondeur, nœuds/s),
+ * repris par l'overlay F3 du jeu.
+ *
+ * Pour mesurer:
+ *   java src.TurnPlanner [FACILE|DIFFICILE] [joueurs] [ms]
+ */
+class TurnPlanner {
+    static final long BUDGET_MS = Long.getLong("oie.ai.ms", 300);
+    static final int MAX_DEPTH = 12;
+    static final double WIN = 1000;
+    static final double SCORE_WEIGHT = 0.001;
+    static final int TABLE_BITS = 20;
+
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ai");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /* ---------- Plan: décision pour chaque face, et coût de la recherche ---------- */
+    static class Plan {
+        final boolean[] reroll = new boolean[7];   // indexé par la face 1..6
+        int depth;
+        long nodes;
+        long nanos;
+
+        double nodesPerSecond() { return nanos == 0 ? 0 : nodes * 1e9 / nanos; }
+
+        @Override
+        public String toString() {
+            return String.format("profondeur %d, %d nœuds, %.1f M nœuds/s", depth, nodes, nodesPerSecond() / 1e6);
+        }
+    }
+
+    // interrompt l'itération en cours quand le budget est épuisé
+    private static class OutOfTime extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        OutOfTime() { super(null, null, false, false); }
+    }
+
+    final Board board;
+    final boolean rerollVariant;
+    final double[] expectedTurns;
+    final int posBits;   // bits d'une case dans la clé de la table
+    // une demande par génération: cancel() ou une nouvelle demande abandonne la précédente
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // état de recherche, propre au fil "ai"
+    private int n, root, gen;
+    private boolean tabled;   // la position tient dans une clé de 64 bits: table utilisable
+    private int[] pos, score;
+    private int[][] undoPos, undoScore;   // une sauvegarde par profondeur
+    private long nodes, deadline;
+    private int sinceCheck;
+    private final long[] tKey = new long[1 << TABLE_BITS], tScores = new long[1 << TABLE_BITS];
+    private final double[] tValue = new double[1 << TABLE_BITS];
+    private final byte[] tDepth = new byte[1 << TABLE_BITS];
+
+    TurnPlanner(Board board, boolean rerollVariant) {
+        this.board = board;
+        this.rerollVariant = rerollVariant;
+        double[] e = new BoardAnalytics(board).expectedTurns();
+        expectedTurns = Arrays.copyOf(e, board.finalSquare + 1);   // case finale: 0
+        posBits = 32 - Integer.numberOfLeadingZeros(board.finalSquare);
+    }
+
+    /** Copie l'état (sur l'EDT) et cherche en tâche de fond. */
+    CompletableFuture<Plan> planAsync(GameEngine e, long budgetMs) {
+        int[] p = e.pos.clone(), s = e.score.clone();
+        int cur = e.currentPlayer;
+        int g = generation.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> plan(p, s, cur, budgetMs, g), worker);
+    }
+
+    void cancel() { generation.incrementAndGet(); }
+
+    Plan plan(int[] positions, int[] scores, int cur, long budgetMs) {
+        return plan(positions, scores, cur, budgetMs, generation.get());
+    }
+
+    private Plan plan(int[] positions, int[] scores, int cur, long budgetMs, int g) {
+        long t0 = System.nanoTime();
+        Metrics.AiPlanEvent ev = new Metrics.AiPlanEvent();
+        ev.begin();
+        gen = g;
+        n = positions.length;
+        root = cur;
+        tabled = n <= 4 && n * posBits + 2 <= 64;
+        pos = positions.clone();
+        score = scores.clone();
+        undoPos = new int[MAX_DEPTH + 1][n];
+        undoScore = new int[MAX_DEPTH + 1][n];
+        nodes = 0;
+        deadline = t0 + budgetMs * 1_000_000;
+        Arrays.fill(tDepth, (byte) 0);
+
+        Plan best = new Plan();
+        if (rerollVariant) {
+            double[] keep = new double[7];
+            for (int depth=1; depth<=MAX_DEPTH; depth++) {
+                try {
+                    double rerolled = 0;
+                    for (int d=1; d<=6; d++) {
+                        keep[d] = after(cur, d, depth);
+                        rerolled += keep[d];
+                    }
+                    rerolled /= 6;
+                    for (int d=1; d<=6; d++) best.reroll[d] = rerolled > keep[d];
+                    best.depth = depth;
+                } catch(OutOfTime e) {
+                    break;
+                }
+            }
+        }
+        best.nodes = nodes;
+        best.nanos = System.nanoTime() - t0;
+        if (ev.shouldCommit()) {
+            ev.players = n;
+            ev.depth = best.depth;
+            ev.nodes = best.nodes;
+            ev.nodesPerSecond = best.nodesPerSecond();
+            ev.commit();
+        }
+        return best;
+    }
+
+    // espérance sur les six faces pour le joueur cur
+    private double chance(int cur, int depth) {
+        long k1 = 0, k2 = 0;
+        int slot = -1;
+        if (tabled) {
+            for (int i=0; i<n; i++) {
+                k1 = k1 << posBits | pos[i];
+                k2 = k2 << 16 | (score[i] & 0xFFFF);
+            }
+            k1 = k1 << 2 | cur;
+            slot = (int) (mix(k1 * 0x9E3779B97F4A7C15L ^ k2) >>> (64 - TABLE_BITS));
+            if (tDepth[slot] >= depth && tKey[slot] == k1 && tScores[slot] == k2) return tValue[slot];
+        }
+
+        if (++sinceCheck == 1024) {
+            sinceCheck = 0;
+            if (generation.get() != gen || System.nanoTime() > deadline) throw new OutOfTime();
+        }
+
+        double sum = 0;
+        for (int d=1; d<=6; d++) {
+            double keep = after(cur, d, depth);
+            if (rerollVariant) {
+                double rerolled = 0;
+                for (int d2=1; d2<=6; d2++) rerolled += after(cur, d2, depth);
+                rerolled /= 6;
+                keep = cur == root ? Math.max(keep, rerolled) : Math.min(keep, rerolled);
+            }
+            sum += keep;
+        }
+        double v = sum / 6;
+
+        if (slot >= 0) {
+            tKey[slot] = k1;
+            tScores[slot] = k2;
+            tValue[slot] = v;
+            tDepth[slot] = (byte) depth;
+        }
+        return v;
+    }
+
+    // joue la face die pour cur, évalue, puis défait le coup
+    private double after(int cur, int die, int depth) {
+        nodes++;
+        int[] savedPos = undoPos[depth], savedScore = undoScore[depth];
+        System.arraycopy(pos, 0, savedPos, 0, n);
+        System.arraycopy(score, 0, savedScore, 0, n);
+
+        double v;
+        if (move(cur, die)) v = cur == root ? WIN : -WIN;
+        else if (depth <= 1) v = evaluate();
+        else v = chance((cur + 1) % n, depth - 1);
+
+        System.arraycopy(savedPos, 0, pos, 0, n);
+        System.arraycopy(savedScore, 0, score, 0, n);
+        return v;
+    }
+
+    // règles de GameEngine.step hors mode foule (l'AI ne joue pas en foule), sur les
+    // tableaux: saut de case appliqué deux fois au plus, et le pion délogé est le
+    // premier occupant dans l'ordre des sièges; true si cur gagne
+    private boolean move(int cur, int die) {
+        int from = pos[cur];
+        int target = board.bounce(from, die);
+        int jump = board.jumps[target];
+        int gained = (target - from) * 3;
+        if (target > from && jump != target) {
+            if (jump > target) gained = (die + (jump - 9)) * 3;
+            target = jump;
+        }
+
+        int opp = -1;
+        for (int i=0; i<n; i++)
+            if (i != cur && pos[i] == target) { opp = i; break; }
+        if (opp >= 0) {
+            pos[opp] = from;
+            score[opp] -= die * 3;
+            gained = die * 6;
+        }
+        score[cur] += gained;
+        pos[cur] = board.jumps[target];   // second effet de case éventuel
+        return pos[cur] == board.finalSquare;
+    }
+
+    private double evaluate() {
+        double rival = Double.MAX_VALUE;
+        int rivalScore = Integer.MIN_VALUE;
+        for (int i=0; i<n; i++) {
+            if (i == root) continue;
+            rival = Math.min(rival, expectedTurns[pos[i]]);
+            rivalScore = Math.max(rivalScore, score[i]);
+        }
+        if (n == 1) { rival = 0; rivalScore = 0; }
+        return rival - expectedTurns[pos[root]] + SCORE_WEIGHT * (score[root] - rivalScore);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static void main(String[] args) {
+        String level = args.length > 0 ? args[0] : "DIFFICILE";
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        long ms = args.length > 2 ? Long.parseLong(args[2]) : BUDGET_MS;
+
+        TurnPlanner planner = new TurnPlanner(Board.forLevel(level), true);
+        Random rnd = new Random(1);
+        long nodes = 0, nanos = 0;
+        for (int i=0; i<10; i++) {
+            int[] p = new int[players], s = new int[players];
+            for (int j=0; j<players; j++) {
+                p[j] = rnd.nextInt(planner.board.finalSquare);
+                s[j] = rnd.nextInt(200);
+            }
+            Plan plan = planner.plan(p, s, players - 1, ms);
+            StringBuilder faces = new StringBuilder();
+            for (int d=1; d<=6; d++) if (plan.reroll[d]) faces.append(d);
+            System.out.printf("cases %s: relance sur [%s], %s%n", Arrays.toString(p), faces, plan);
+            nodes += plan.nodes;
+            nanos += plan.nanos;
+        }
+        System.out.printf("Moyenne: %.1f M nœuds/s%n", nodes * 1e3 / nanos);
+    }
+}
@@ -0,0 +1,17 @@
+package src;
+
+/* ---------- TurnResult: ce qui s'est passé pendant un coup ---------- */
+class TurnResult {
+    Player player;
+    int die;
+    int from;
+    int target;          // case atteinte après rebond et premier saut
+    boolean bounced;
+    boolean jumped;
+    Player opponent;     // pion dont on a pris la place, sinon null
+    int points;          // points gagnés par le joueur
+    int lost;            // points perdus par l'adversaire
+    int effectDest = -1; // second effet de case, -1 si aucun
+    boolean won;
+    Player next;
+}
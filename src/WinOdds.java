@@ -0,0 +1,181 @@
+package src;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chances de victoire affichées dans le tableau des scores.
+ *
+ * Après chaque coup, la position exacte (cases des pions, joueur courant)
+ * est rejouée jusqu'à la victoire par des parties aléatoires avec les
+ * vraies règles: table des sauts du plateau, rebond et prise de place.
+ * Les coups restants d'un pion sont ceux joués dans la partie, plus, s'il
+ * n'a pas gagné, l'espérance exacte depuis sa case d'arrivée
+ * (BoardAnalytics).
+ *
+ * Le calcul tourne sur le fil "odds" avec un budget fixe (propriété
+ * oie.odds.ms, 40 ms par défaut); une nouvelle demande abandonne la
+ * précédente. Les résultats sont gardés par position: une position déjà
+ * vue est servie tout de suite. Seules les estimations d'au moins
+ * MIN_CACHED parties sont gardées; une estimation écourtée (fil occupé,
+ * machine lente) est refaite à la prochaine demande. Les scores n'y
+ * entrent pas, ils ne décident pas du gagnant.
+ *
+ * L'espérance exacte est calculée à la construction: l'interface passe
+ * par createAsync(), qui construit sur le fil "odds".
+ *
+ * Pour mesurer:
+ *   java src.WinOdds [FACILE|DIFFICILE] [joueurs] [ms]
+ */
+class WinOdds {
+    static final long BUDGET_MS = Long.getLong("oie.odds.ms", 40);
+    static final int MAX_GAMES = 100_000;
+    static final int MAX_TURNS = 2_000;   // garde-fou: partie aléatoire sans fin
+    static final int CACHE = 4096;
+    static final int CHECK_EVERY = 64;    // parties entre deux regards à l'horloge
+    static final int MIN_CACHED = 2_000;  // en dessous, l'estimation n'est pas gardée
+
+    private static final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "odds");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /* ---------- Odds: estimation pour une position ---------- */
+    static class Odds {
+        final double[] win, turns;   // par joueur: probabilité de gagner, coups restants
+        int games;
+        long nanos;
+
+        Odds(int n) {
+            win = new double[n];
+            turns = new double[n];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i=0; i<win.length; i++)
+                sb.append(String.format("J%d %.0f%% ~%.1f  ", i+1, win[i] * 100, turns[i]));
+            return sb.append(String.format("(%d parties, %.1f ms)", games, nanos / 1e6)).toString();
+        }
+    }
+
+    // clé du cache: cases des pions et joueur courant
+    private static final class Key {
+        final int[] pos;
+        final int cur;
+
+        Key(int[] pos, int cur) {
+            this.pos = pos;
+            this.cur = cur;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).cur == cur && Arrays.equals(((Key) o).pos, pos);
+        }
+
+        @Override
+        public int hashCode() { return Arrays.hashCode(pos) * 31 + cur; }
+    }
+
+    final Board board;
+    private final GameEngine sim;     // moteur de brouillon, propre au fil "odds"
+    private final double[] expectedTurns;   // coups restants depuis chaque case, finale comprise
+    private final DiceRng rng = new DiceRng(System.nanoTime());
+    private final AtomicInteger generation = new AtomicInteger();
+    private final int[] own, zero;
+    long hits, misses;
+
+    // accès depuis le seul fil "odds"
+    private final Map<Key,Odds> cache = new LinkedHashMap<Key,Odds>(CACHE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key,Odds> e) { return size() > CACHE; }
+    };
+
+    WinOdds(Board board, List<Player> players) {
+        this.board = board;
+        this.sim = new GameEngine(board, players);
+        own = new int[players.size()];
+        zero = new int[players.size()];
+        double[] e = new BoardAnalytics(board).expectedTurns();
+        expectedTurns = Arrays.copyOf(e, board.finalSquare + 1);   // case finale: 0
+    }
+
+    /** Construit sur le fil "odds": l'analyse du plateau ne passe pas sur l'EDT. */
+    static CompletableFuture<WinOdds> createAsync(Board board, List<Player> players) {
+        return CompletableFuture.supplyAsync(() -> new WinOdds(board, players), worker);
+    }
+
+    /** Copie la position (sur l'EDT) et estime en tâche de fond; null si abandonnée. */
+    CompletableFuture<Odds> estimateAsync(GameEngine e) {
+        int[] p = e.pos.clone();
+        int cur = e.currentPlayer;
+        int gen = generation.incrementAndGet();   // la demande précédente s'arrête
+        return CompletableFuture.supplyAsync(() -> estimate(p, cur, gen, BUDGET_MS), worker);
+    }
+
+    void cancel() { generation.incrementAndGet(); }
+
+    Odds estimate(int[] p, int cur, int gen, long budgetMs) {
+        Key key = new Key(p, cur);
+        Odds o = cache.get(key);
+        if (o != null) {
+            hits++;
+            return o;
+        }
+        misses++;
+        long t0 = System.nanoTime(), deadline = t0 + budgetMs * 1_000_000;
+        int n = p.length;
+        long[] wins = new long[n];
+        double[] turns = new double[n];
+        int games = 0;
+        while (games < MAX_GAMES) {
+            if (games % CHECK_EVERY == 0) {
+                if (generation.get() != gen) return null;
+                if (games > 0 && System.nanoTime() > deadline) break;
+            }
+            sim.load(p, zero, cur);
+            Arrays.fill(own, 0);
+            while (!sim.isOver() && sim.turns < MAX_TURNS) {
+                own[sim.currentPlayer]++;
+                sim.step(rng.rollDie());
+            }
+            if (sim.isOver()) wins[sim.winner]++;
+            for (int i=0; i<n; i++) turns[i] += own[i] + expectedTurns[sim.pos[i]];
+            games++;
+        }
+        o = new Odds(n);
+        for (int i=0; i<n; i++) {
+            o.win[i] = wins[i] / (double) games;
+            o.turns[i] = turns[i] / games;
+        }
+        o.games = games;
+        o.nanos = System.nanoTime() - t0;
+        if (games >= MIN_CACHED) cache.put(key, o);
+        return o;
+    }
+
+    public static void main(String[] args) {
+        String level = args.length > 0 ? args[0].toUpperCase() : "DIFFICILE";
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        long ms = args.length > 2 ? Long.parseLong(args[2]) : BUDGET_MS;
+
+        GameEngine e = new GameEngine(new GameConfig(level, players, false));
+        WinOdds odds = new WinOdds(e.board, e.players);
+        DiceRng rng = new DiceRng(1);
+        long games = 0, nanos = 0;
+        while (!e.isOver()) {
+            Odds o = odds.estimate(e.pos.clone(), e.currentPlayer, 0, ms);
+            games += o.games;
+            nanos += o.nanos;
+            System.out.printf("coup %3d cases %s: %s%n", e.turns, Arrays.toString(e.pos), o);
+            e.step(rng.rollDie());
+        }
+        System.out.printf("Moyenne: %.0f k parties/s, cache %d/%d%n", games * 1e6 / Math.max(1, nanos),
+                odds.hits, odds.hits + odds.misses);
+    }
+}